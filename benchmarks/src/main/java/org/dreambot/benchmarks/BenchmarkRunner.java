@@ -0,0 +1,40 @@
+package org.dreambot.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * BenchmarkRunner.java
+ *
+ * Entry point of benchmarks.jar.
+ *
+ * Key functionality:
+ * - Accepts the normal JMH command line (filters, -f, -wi, -i, ...)
+ * - Always attaches the GC profiler, so every result carries gc.alloc.rate.norm
+ *   (bytes allocated per op) next to ops/s
+ * - Writes the results as JSON to jmh-result.json for comparing runs
+ *
+ * Usage:
+ *   java -jar target/benchmarks.jar                  // everything
+ *   java -jar target/benchmarks.jar FurnaceLoop      // one benchmark class
+ */
+public final class BenchmarkRunner {
+    private static final String RESULT_FILE = "jmh-result.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(RESULT_FILE)
+            .build();
+        new Runner(options).run();
+    }
+}
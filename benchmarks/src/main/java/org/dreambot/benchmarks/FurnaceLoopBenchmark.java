@@ -0,0 +1,61 @@
+package org.dreambot.benchmarks;
+
+import org.dreambot.blastfurnace.sim.FurnaceSimulator;
+import org.dreambot.blastfurnace.sim.SimSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * FurnaceLoopBenchmark.java
+ *
+ * A full onLoop decision pass of the furnace scripts, run against the simulated world.
+ *
+ * Key functionality:
+ * - One op is one FurnaceSimulator.step(): tick clock update, state timing, one decision
+ *   pass and the simulated sleep, the same sequence as the scripts' onLoop
+ * - The world is rebuilt every iteration and stocked well past what an iteration uses, so
+ *   every iteration covers whole laps and never hits the out-of-materials stop
+ *
+ * The simulated world's own tick processing is part of each op; compare results against
+ * earlier runs of this benchmark, not as absolute client costs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FurnaceLoopBenchmark {
+    private static final int STOCK = Integer.MAX_VALUE / 2;
+
+    @Param({"steel", "adamant"})
+    public String script;
+
+    private FurnaceSimulator simulator;
+
+    @Setup(Level.Iteration)
+    public void createWorld() {
+        SimSettings settings = new SimSettings();
+        settings.bankCoal = STOCK;
+        settings.bankOre = STOCK;
+        settings.bankStaminaPotions = STOCK;
+        simulator = new FurnaceSimulator(script, settings);
+    }
+
+    @Benchmark
+    public int onLoop() {
+        return simulator.step();
+    }
+}
@@ -0,0 +1,40 @@
+package org.dreambot.benchmarks;
+
+import org.dreambot.blastfurnace.ProfitModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * ProfitModelBenchmark.java
+ *
+ * calculateStats() as the furnace scripts run it on each paint refresh.
+ *
+ * Key functionality:
+ * - Uses the steel script's prices; the XP/hr and bars/hr inputs step each op so the
+ *   JIT can't fold the arithmetic away
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfitModelBenchmark {
+    private final ProfitModel model = new ProfitModel(469, 158, 1, 149, 10025 / 4, 95400.0);
+    private int step;
+
+    @Benchmark
+    public ProfitModel.Stats calculateStats() {
+        step = (step + 1) & 1023;
+        return model.calculate(80_000 + step, 4_500 + step);
+    }
+}
@@ -0,0 +1,79 @@
+package org.dreambot.benchmarks;
+
+import org.dreambot.blastfurnace.StaminaPotions;
+import org.dreambot.blastfurnace.sim.SimSettings;
+import org.dreambot.blastfurnace.sim.SimulatedBlastFurnace;
+import org.dreambot.core.InventorySnapshot;
+import org.dreambot.core.TickClock;
+import org.dreambot.core.WorldSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * StaminaSearchBenchmark.java
+ *
+ * The stamina potion search the furnace scripts run while banking on low energy.
+ *
+ * Key functionality:
+ * - Runs against the simulated world with the bank open and a coal bag plus a full load
+ *   of ore held, the inventory the search actually sees
+ * - Goes through the WorldSnapshot the loop syncs each tick, so the bank is answered
+ *   from its cache just as the script's restock does
+ * - inventoryMiss walks every dose through the snapshot (no potion held); search runs
+ *   the whole lookup, falling through to the four-dose potion the bank keeps
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StaminaSearchBenchmark {
+    private static final int COAL_BAG_ID = 12019;
+    private static final int IRON_ORE_ID = 440;
+
+    private WorldSnapshot world;
+    private InventorySnapshot inventory;
+
+    @Setup
+    public void openBank() {
+        SimulatedBlastFurnace game = new SimulatedBlastFurnace(new SimSettings());
+        world = new WorldSnapshot(new TickClock(game), game);
+        inventory = world.inventory();
+
+        game.openBank();
+        game.sleepUntil(game::isBankOpen, 10_000);
+        game.withdraw(COAL_BAG_ID, 1);
+        game.withdraw(IRON_ORE_ID, 27);
+        world.sync();
+        if (!world.bankOpen() || inventory.emptySlots() != 0
+                || search() == StaminaPotions.NONE) {
+            throw new IllegalStateException("Simulated bank did not reach the expected inventory");
+        }
+    }
+
+    @Benchmark
+    public int inventoryMiss() {
+        return StaminaPotions.inInventory(inventory);
+    }
+
+    @Benchmark
+    public int search() {
+        world.sync();
+        int potion = StaminaPotions.inInventory(inventory);
+        if (potion == StaminaPotions.NONE) {
+            potion = StaminaPotions.inBank(world);
+        }
+        return potion;
+    }
+}
@@ -0,0 +1,86 @@
+package org.dreambot.benchmarks;
+
+import org.dreambot.collector.VineFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * VineFilterBenchmark.java
+ *
+ * The collectHerbs object filter run over one scan's worth of loaded objects.
+ *
+ * Key functionality:
+ * - Builds a fixed scene shaped like the Karamja vine area: mostly scenery outside the
+ *   bounds, some non-vine objects inside them and a handful of searchable vines
+ * - One op is one full scan, so ops/s is scans per second
+ *
+ * GameObject can't be constructed without a client, so the scene is held as plain values
+ * and fed to the overload the GameObject filter forwards to.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VineFilterBenchmark {
+    // Roughly what GameObjects.all() holds around the vines
+    private static final int SCENE_SIZE = 600;
+
+    private static final String[] VINE_ACTIONS = {"Search", null, null, null, null};
+    private static final String[] TREE_ACTIONS = {"Chop down", null, null, "Examine", null};
+    private static final String[] NO_ACTIONS = {null, null, null, null, null};
+
+    private final int[] ids = new int[SCENE_SIZE];
+    private final String[] names = new String[SCENE_SIZE];
+    private final int[] xs = new int[SCENE_SIZE];
+    private final int[] ys = new int[SCENE_SIZE];
+    private final String[][] actions = new String[SCENE_SIZE][];
+
+    @Setup
+    public void buildScene() {
+        Random random = new Random(42);
+        for (int i = 0; i < SCENE_SIZE; i++) {
+            int kind = random.nextInt(20);
+            // A quarter of the scene inside the vine bounds, the rest around them
+            boolean inside = random.nextInt(4) == 0;
+            xs[i] = inside ? 2757 + random.nextInt(20) : 2720 + random.nextInt(90);
+            ys[i] = inside ? 3014 + random.nextInt(31) : 2980 + random.nextInt(90);
+            if (kind == 0) {
+                ids[i] = VineFilter.VINE_ID;
+                names[i] = VineFilter.VINE_NAME;
+                actions[i] = VINE_ACTIONS;
+            } else if (kind < 6) {
+                ids[i] = 2889 + kind;
+                names[i] = "Jungle tree";
+                actions[i] = TREE_ACTIONS;
+            } else {
+                ids[i] = 1000 + random.nextInt(5000);
+                names[i] = "null";
+                actions[i] = NO_ACTIONS;
+            }
+        }
+    }
+
+    @Benchmark
+    public int scan() {
+        int matches = 0;
+        for (int i = 0; i < SCENE_SIZE; i++) {
+            if (VineFilter.matches(ids[i], names[i], xs[i], ys[i], actions[i])) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
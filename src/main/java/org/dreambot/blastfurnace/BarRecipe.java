@@ -0,0 +1,66 @@
+package org.dreambot.blastfurnace;
+
+/*
+ * BarRecipe.java
+ *
+ * The bars the Blast Furnace makes from a single ore plus coal.
+ *
+ * Key functionality:
+ * - Ore, bar and the coal each bar takes at the Blast Furnace (half what a normal
+ *   furnace needs)
+ * - Steel also lists iron bars, which is what iron ore makes when the pot has no coal
+ *
+ * Bronze needs two ores and is left out, as is silver. Gold only earns its full XP with
+ * goldsmith gauntlets worn. TripPlanner plans any of these.
+ */
+public enum BarRecipe {
+    IRON(440, 2351, 0),
+    STEEL(440, 2353, 1, 2351),
+    GOLD(444, 2357, 0),
+    MITHRIL(447, 2359, 2),
+    ADAMANT(449, 2361, 3),
+    RUNE(451, 2363, 4);
+
+    private final int oreId;
+    private final int barId;
+    private final int coalPerBar;
+    private final int[] bars;
+
+    BarRecipe(int oreId, int barId, int coalPerBar, int... otherBars) {
+        this.oreId = oreId;
+        this.barId = barId;
+        this.coalPerBar = coalPerBar;
+        this.bars = new int[otherBars.length + 1];
+        this.bars[0] = barId;
+        System.arraycopy(otherBars, 0, this.bars, 1, otherBars.length);
+    }
+
+    public int oreId() {
+        return oreId;
+    }
+
+    public int barId() {
+        return barId;
+    }
+
+    /**
+     * @return Coal per bar, 0 for bars that need none
+     */
+    public int coalPerBar() {
+        return coalPerBar;
+    }
+
+    /**
+     * @return Every bar the dispenser can hand out for this ore, the recipe's bar first
+     */
+    int[] bars() {
+        return bars;
+    }
+
+    /**
+     * @return true if trips need the coal bag
+     */
+    boolean usesCoal() {
+        return coalPerBar > 0;
+    }
+}
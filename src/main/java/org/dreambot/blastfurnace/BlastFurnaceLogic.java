@@ -0,0 +1,860 @@
+package org.dreambot.blastfurnace;
+
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.api.methods.skills.Skill;
+import org.dreambot.core.BankCache;
+import org.dreambot.core.BankPlanner;
+import org.dreambot.core.Deadline;
+import org.dreambot.core.InventorySnapshot;
+import org.dreambot.core.TickClock;
+import org.dreambot.core.TickScheduler;
+import org.dreambot.core.TimeoutPolicy;
+import org.dreambot.core.Wait;
+import org.dreambot.core.WorldSnapshot;
+import org.dreambot.core.event.EventFilter;
+import org.dreambot.core.game.GameApi;
+import org.dreambot.core.log.LogLevel;
+import org.dreambot.core.log.ScriptLog;
+import org.dreambot.core.node.NodeEngine;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * BlastFurnaceLogic.java
+ *
+ * Decision logic for any single-ore bar at the Blast Furnace, independent of the script
+ * shell.
+ *
+ * Key functionality:
+ * - At the bank, asks TripPlanner what this trip carries (ore, coal, whether to fill the
+ *   coal bag) from the recipe, the bag's capacity and the coal already in the pot, then
+ *   banks bars and withdraws exactly that, sending BankPlanner's operations
+ *   back-to-back and checking stock against the BankCache
+ * - Takes a stamina dose only on the bank visit RunEnergyModel says the coming lap needs
+ *   it, as part of the same withdraw plan
+ * - Puts the load on the conveyor, empties the bag onto it, and collects the bars on
+ *   trips that carried ore
+ * - Reads the furnace varbits through FurnaceModel, so Take is only clicked when the
+ *   bars are out or due by the time the click reaches the dispenser
+ * - Walks between the bank chest, conveyor and dispenser with FurnaceRoutes' single
+ *   minimap clicks, leaving the web walker for when the player is further out or blocked
+ * - While each wait runs, hovers the object the next pass clicks (conveyor, dispenser or
+ *   bank chest), so the click goes out on the first tick it applies
+ * - Talks to the game only through GameApi and reads time only from the TickClock
+ *
+ * Each step is a node validated against the per-tick WorldSnapshot plus the trip memory
+ * the game doesn't show: the planned trip, whether the bag is full or being emptied, and
+ * whether the load is on the belt. The engine runs the highest priority node that
+ * applies, so every pass goes straight to the next useful action.
+ *
+ * The script shells and the simulator run the same class, configured only by the
+ * recipe. The caller must update() the TickClock before every loop().
+ */
+public final class BlastFurnaceLogic implements FurnaceLogic {
+    // Resource IDs
+    static final int COAL_ID = 453;
+    static final int COAL_BAG_ID = 12019;
+
+    private static final int INVENTORY_SLOTS = 28;
+
+    // Laps the paint looks ahead for the next stamina dose
+    private static final int DOSE_HORIZON = 20;
+
+    // Blast Furnace locations
+    static final Tile CONVEYOR_BELT_TILE = new Tile(1942, 4967, 0);
+    static final Tile BAR_DISPENSER_TILE = new Tile(1940, 4964, 0);
+    static final Tile BANK_CHEST_TILE = new Tile(1948, 4957, 0);
+
+    // Object IDs
+    static final int CONVEYOR_BELT_ID = 9100;
+    static final int BAR_DISPENSER_ID = 9092;
+    static final int BANK_CHEST_ID = 26707;
+
+    // Game message for a Take before the bars are out of the furnace
+    static final String NO_BARS_MESSAGE = "no bars";
+
+    // Consecutive idle ticks after which a click is taken to have missed
+    private static final int STALL_TICKS = 2;
+
+    private final BarRecipe recipe;
+    private final int oreId;
+    private final GameApi api;
+    private final TickClock clock;
+    private final ScriptLog logger;
+    private final TickScheduler scheduler;
+    private final WorldSnapshot world;
+    private final InventorySnapshot inventory;
+    private final NodeEngine<FurnaceNode> engine;
+    private final FurnaceModel furnace;
+    private final TripPlanner planner;
+    private final FurnaceRoutes routes;
+    private final RunEnergyModel energy = new RunEnergyModel();
+    private final BankCache bank;
+    private final BankPlanner loadout = new BankPlanner();
+    private final int[] held = new int[INVENTORY_SLOTS];
+
+    // What the game doesn't show us
+    private TripPlanner.Trip trip;          // Planned at the bank, cleared on leaving it
+    private TripPlanner.Trip lastTrip;
+    private int bagCapacity = TripPlanner.BAG_CAPACITY;
+    private int bagCoal;                    // With a cape this is more than one inventory's worth
+    private boolean emptyingBag;            // "Empty" sent, waiting for the coal to show up
+    private int fillExpected = -1;          // "Fill" sent: most coal it can take from the bank, -1 none
+    private boolean loadOnBelt;             // This trip's inventory load went onto the belt
+    private boolean barsPending;            // This trip's ore is on the belt, bars to collect
+    private boolean retreating;             // Gave up on the conveyor, heading back to the bank
+    private boolean loading;                // Ore clicked onto the belt, still leaving the inventory
+    private boolean doseDue;                // Decided on reaching the bank, cleared once drunk
+    private boolean drinking;               // "Drink" sent, drinkWait tells whether it landed
+
+    // What a sip changes, read as the Drink goes out
+    private int doseBefore;
+    private int energyBefore;
+    private long staminaBefore;
+    private boolean stopped;
+    private int barsMade;
+
+    private final Deadline depositDeadline;
+
+    // Waits after each interaction, ending early on failure or a stalled player
+    private final Wait loadWait;
+    private final Wait takeWait;
+    private final Wait quantityWait;
+    private final Wait barsReadyWait;
+    private final Wait bankWait;
+    private final Wait restockWait;
+    private final Wait emptyBagWait;
+    private final Wait drinkWait;
+    private boolean waitedForBars;          // Already waited out one "no bars" since the last Take
+
+    /**
+     * @param api Game access, live or simulated
+     * @param clock Tick clock the caller updates once per loop
+     * @param logger Script log
+     * @param recipe Bar to make
+     */
+    public BlastFurnaceLogic(GameApi api, TickClock clock, ScriptLog logger, BarRecipe recipe) {
+        this(api, clock, logger, recipe, TimeoutPolicy.DEFAULT);
+    }
+
+    /**
+     * @param api Game access, live or simulated
+     * @param clock Tick clock the caller updates once per loop
+     * @param logger Script log
+     * @param recipe Bar to make
+     * @param timeouts Policy turning observed wait durations into timeouts
+     */
+    public BlastFurnaceLogic(GameApi api, TickClock clock, ScriptLog logger, BarRecipe recipe,
+                             TimeoutPolicy timeouts) {
+        this.recipe = recipe;
+        this.oreId = recipe.oreId();
+        this.api = api;
+        this.clock = clock;
+        this.logger = logger;
+        this.scheduler = new TickScheduler(clock, api.events());
+        this.world = new WorldSnapshot(clock, api);
+        this.inventory = world.inventory();
+        this.bank = world.bank();
+        this.depositDeadline = new Deadline(clock);
+        this.furnace = new FurnaceModel(api);
+        this.planner = new TripPlanner(recipe);
+        this.routes = new FurnaceRoutes(api, logger);
+
+        // Ends a dispenser wait the moment the bars land in the inventory
+        EventFilter barsGained = EventFilter.itemGained(recipe.bars());
+        this.loadWait = new Wait("Load on belt")
+            .succeedOn(EventFilter.itemLost(oreId, COAL_ID))
+            .succeedWhen(() -> !holdsLoad())
+            .stallWhen(this::idle, STALL_TICKS)
+            .meanwhile(() -> {
+                // The bag's coal goes on next if there is any; the mouse is already there
+                if (bagCoal == 0) {
+                    if (barsPending) {
+                        hover(BAR_DISPENSER_ID, "Take");
+                    } else {
+                        hover(BANK_CHEST_ID, "Use");
+                    }
+                }
+            })
+            .timeout(timeouts, 4000);
+        this.takeWait = new Wait("Take bars")
+            .succeedOn(barsGained)
+            .succeedWhen(() -> api.inDialogue() || barsHeld() > 0)
+            .failOn(EventFilter.chatContains(NO_BARS_MESSAGE))
+            .stallWhen(this::idle, STALL_TICKS)
+            .meanwhile(() -> hover(BANK_CHEST_ID, "Use"))
+            .timeout(timeouts, 2000);
+        this.quantityWait = new Wait("Bar quantity")
+            .succeedOn(barsGained)
+            .succeedWhen(() -> barsHeld() > 0)
+            .stallWhen(() -> !api.inDialogue(), STALL_TICKS)
+            .meanwhile(() -> hover(BANK_CHEST_ID, "Use"))
+            .timeout(timeouts, 2000);
+        this.barsReadyWait = new Wait("Bars ready")
+            .succeedOn(EventFilter.experience(Skill.SMITHING))
+            .succeedWhen(() -> barsOut() > 0)
+            .meanwhile(() -> hover(BAR_DISPENSER_ID, "Take"))
+            .timeout(timeouts, 2400);
+        this.bankWait = new Wait("Open bank")
+            .succeedWhen(api::isBankOpen)
+            .stallWhen(this::idle, STALL_TICKS)
+            .timeout(timeouts, 5000);
+        this.restockWait = new Wait("Restock")
+            .succeedWhen(() -> fillShown() && loadout.holdsItems(inventory))
+            .meanwhile(() -> hover(CONVEYOR_BELT_ID, "Put-ore-on"))
+            .timeout(timeouts, 2400);
+        this.emptyBagWait = new Wait("Empty coal bag")
+            .succeedOn(EventFilter.itemGained(COAL_ID))
+            .succeedWhen(() -> inventory.contains(COAL_ID))
+            .meanwhile(() -> hover(CONVEYOR_BELT_ID, "Put-ore-on"))
+            .timeout(timeouts, 1200);
+        this.drinkWait = new Wait("Drink stamina")
+            // Energy can't rise when it is already full, so a used dose counts as well
+            .succeedWhen(() -> StaminaPotions.inInventory(inventory) != doseBefore
+                || api.runEnergy() > energyBefore || staminaMs() > staminaBefore)
+            .stallWhen(this::idle, STALL_TICKS)
+            .timeout(timeouts, 2000);
+        this.engine = new NodeEngine<FurnaceNode>(logger)
+            .add(new OutOfMaterials())
+            .add(new DrinkStamina())
+            .add(new PlanTrip())
+            .add(new Restock())
+            .add(new LeaveBank())
+            .add(new DepositLoad())
+            .add(new EmptyCoalBag())
+            .add(new CollectBars())
+            .add(new WalkToBank());
+    }
+
+    /**
+     * Runs one decision pass
+     * @return Sleep duration in milliseconds before the next pass
+     */
+    @Override
+    public int loop() {
+        // Timed on every poll, parked or not, so the latency isn't stretched by a Take wait
+        furnace.observe(recipe.barId(), clock.now());
+        if (scheduler.isWaiting()) {
+            return scheduler.pollDelay();
+        }
+        observe();
+
+        int delay = engine.run(world);
+        return delay >= 0 ? delay : scheduler.nextTick();
+    }
+
+    /**
+     * Updates the memory nodes validate against from what the last action achieved
+     */
+    private void observe() {
+        world.sync();
+
+        // The bag has emptied once its coal shows up; whatever didn't fit stays in it
+        if (emptyingBag && inventory.contains(COAL_ID)) {
+            bagCoal = Math.max(0, bagCoal - inventory.count(COAL_ID));
+            emptyingBag = false;
+        }
+
+        // The bag has filled once the bank holds less coal than our own withdrawals left in it
+        if (fillExpected >= 0 && world.bankOpen()) {
+            int moved = bank.count(COAL_ID) - api.bankCount(COAL_ID);
+            if (moved > 0) {
+                bagCoal += Math.min(moved, fillExpected);
+                bank.withdrew(COAL_ID, moved);
+                fillExpected = -1;
+            }
+        }
+
+        if (depositDeadline.isArmed() && !holdsLoad()) {
+            logger.info("Load deposited successfully");
+            depositDeadline.clear();
+        }
+
+        energy.observe(world.runEnergy());
+
+        // Ore only goes on once the pot holds its coal, so the ore landing starts the melt
+        long now = clock.now();
+        if (loading && !inventory.contains(oreId)) {
+            loading = false;
+            furnace.loaded(now);
+        }
+    }
+
+    @Override
+    public FurnaceState state() {
+        FurnaceNode current = engine.current();
+        return current != null ? current.state(world) : FurnaceState.BANKING;
+    }
+
+    /**
+     * @return Bars collected from the dispenser so far
+     */
+    @Override
+    public int barsMade() {
+        return barsMade;
+    }
+
+    /**
+     * @return true once the logic has given up, e.g. out of materials
+     */
+    @Override
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    @Override
+    public String validateSummary() {
+        return engine.validateSummary();
+    }
+
+    @Override
+    public String furnaceSummary() {
+        return "Furnace: " + furnace.latency().count() + " loads, bars after p50 "
+            + furnace.latency().percentile(0.50) + "ms, p95 " + furnace.latency().percentile(0.95) + "ms";
+    }
+
+    @Override
+    public String energySummary() {
+        int now = api.runEnergy();
+        long stamina = staminaMs();
+        if (!energy.isTrained()) {
+            return "Run energy: " + now + "% (learning)";
+        }
+        int laps = energy.lapsUntilDose(now, stamina, DOSE_HORIZON);
+        return "Run energy: " + now + "%, " + energy.forecast(now, stamina, 5) + "% in 5 laps, dose in "
+            + (laps < DOSE_HORIZON ? laps + " laps" : DOSE_HORIZON + "+ laps");
+    }
+
+    @Override
+    public String planSummary() {
+        return "Trip: " + (lastTrip != null ? lastTrip : "not planned") + ", pot coal " + planner.expectedPotCoal();
+    }
+
+    /**
+     * @return true if the inventory holds ore or coal for the belt
+     */
+    private boolean holdsLoad() {
+        return inventory.containsAny(oreId, COAL_ID);
+    }
+
+    /**
+     * @return Bars of any type the recipe's ore makes, in the inventory
+     */
+    private int barsHeld() {
+        int held = 0;
+        for (int bar : recipe.bars()) {
+            held += inventory.count(bar);
+        }
+        return held;
+    }
+
+    /**
+     * @return Bars waiting in the dispenser
+     */
+    private int barsOut() {
+        int out = 0;
+        for (int bar : recipe.bars()) {
+            out += furnace.bars(bar);
+        }
+        return out;
+    }
+
+    /**
+     * @return true once the bag holds what the trip needs from it, or all the bank had left
+     */
+    private boolean bagReady() {
+        return !trip.fillBag || bagCoal >= bagCapacity || !bank.contains(COAL_ID);
+    }
+
+    /**
+     * @return false while a Fill is out and the bank's coal hasn't dropped for it yet
+     */
+    private boolean fillShown() {
+        return fillExpected < 0 || api.bankCount(COAL_ID) < bank.count(COAL_ID);
+    }
+
+    /**
+     * @return Coal the bag holds, more with a smithing cape
+     */
+    private int detectBagCapacity() {
+        boolean cape = api.isEquipped("Smithing cape") || api.isEquipped("Smithing cape(t)")
+            || api.isEquipped("Max cape");
+        return cape ? TripPlanner.CAPE_BAG_CAPACITY : TripPlanner.BAG_CAPACITY;
+    }
+
+    /**
+     * @return Stamina effect time left, 0 when none is active
+     */
+    private long staminaMs() {
+        if (api.varbit(RunEnergyModel.VARBIT_STAMINA_ACTIVE) == 0) {
+            return 0;
+        }
+        return api.varbit(RunEnergyModel.VARBIT_STAMINA) * RunEnergyModel.STAMINA_UNIT_MS;
+    }
+
+    /**
+     * @return The inventory this trip leaves the bank with, rebuilt in place
+     */
+    private BankPlanner loadout(WorldSnapshot world) {
+        loadout.clear();
+        if (recipe.usesCoal()) {
+            loadout.item(COAL_BAG_ID, 1);
+        }
+
+        // With a dose due the potion comes out alone, to be drunk before the load takes its slot
+        if (doseDue) {
+            int potion = StaminaPotions.inInventory(inventory);
+            if (potion == StaminaPotions.NONE) {
+                potion = StaminaPotions.inBank(world);
+            }
+            if (potion != StaminaPotions.NONE) {
+                return loadout.item(potion, 1);
+            }
+        }
+        if (!bagReady() && fillExpected < 0) {
+            loadout.use(COAL_BAG_ID, "Fill");
+        }
+        return loadout.item(oreId, trip.ore).item(COAL_ID, trip.coal);
+    }
+
+    /**
+     * Sends one planned bank operation
+     */
+    private void send(BankPlanner.Action action) {
+        switch (action.kind) {
+            case DEPOSIT_ALL:
+                depositAll(action.id);
+                break;
+            case DEPOSIT_ALL_EXCEPT:
+                depositAllExcept(action.id);
+                break;
+            case WITHDRAW:
+                withdraw(action.id, action.amount);
+                break;
+            case USE:
+                // Filling the coal bag is the only item action at the bank. It draws on the bank's
+                // coal, counted by observe() once the bank shows it gone
+                if (api.interactInventory(action.id, action.use)) {
+                    fillExpected = Math.min(bagCapacity - bagCoal, bank.count(COAL_ID));
+                }
+                break;
+        }
+    }
+
+    /**
+     * @return true if the trip needs more of the item than the inventory and bank have
+     */
+    private boolean missing(WorldSnapshot world, int id, int amount) {
+        return inventory.count(id) < amount && !world.bankContains(id);
+    }
+
+    // Bank side, highest priority first; every one of these needs the bank open
+
+    /**
+     * Stops the script once the bank can't supply the planned trip
+     */
+    private final class OutOfMaterials extends FurnaceNode {
+        OutOfMaterials() {
+            super("OutOfMaterials", 100, FurnaceState.BANKING);
+        }
+
+        @Override
+        public boolean isEmergency() {
+            return true;
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return world.bankOpen() && trip != null
+                && (missing(world, oreId, trip.ore) || missing(world, COAL_ID, trip.coal)
+                    || (recipe.usesCoal() && missing(world, COAL_BAG_ID, 1))
+                    || (trip.fillBag && bagCoal == 0 && !world.bankContains(COAL_ID)));
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            logger.error("Out of materials! Coal in bank: {}, ore in bank: {}. Stopping script...",
+                world.bankContains(COAL_ID), world.bankContains(oreId));
+            stopped = true;
+            return 0;
+        }
+    }
+
+    /**
+     * Drinks the stamina potion Restock brought out for a due dose. What is left of it goes
+     * back with the next batch.
+     */
+    private final class DrinkStamina extends FurnaceNode {
+        DrinkStamina() {
+            super("DrinkStamina", 80, FurnaceState.BANKING);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return world.bankOpen() && doseDue
+                && StaminaPotions.inInventory(world.inventory()) != StaminaPotions.NONE;
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            if (drinking) {
+                drinking = false;
+                if (drinkWait.succeeded()) {
+                    doseDue = false;
+                    return scheduler.reevaluate();
+                }
+                logger.warn("Stamina dose didn't land ({}), drinking again", drinkWait.outcome());
+            }
+
+            int dose = StaminaPotions.inInventory(inventory);
+            logger.info("Stamina dose due at {}% run energy, drinking...", world.runEnergy());
+            if (api.interactInventory(dose, "Drink")) {
+                drinking = true;
+                doseBefore = dose;
+                energyBefore = world.runEnergy();
+                staminaBefore = staminaMs();
+                return scheduler.await(drinkWait);
+            }
+            return scheduler.nextTick();
+        }
+    }
+
+    /**
+     * Plans this trip's load from the pot's coal and the bag's capacity, and whether it
+     * needs a stamina dose first
+     */
+    private final class PlanTrip extends FurnaceNode {
+        PlanTrip() {
+            super("PlanTrip", 65, FurnaceState.BANKING);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return world.bankOpen() && trip == null;
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            // The coal bag comes out with the rest of the load if it isn't held yet
+            boolean bag = recipe.usesCoal();
+            int slots = INVENTORY_SLOTS - (bag ? 1 : 0);
+            bagCapacity = planner.usableBag(slots, detectBagCapacity());
+            trip = planner.next(slots, bag ? bagCapacity : 0, furnace.coalInPot());
+            logger.info("Planned trip: {} (pot coal {})", trip, planner.expectedPotCoal());
+
+            // The lap ends where the next is planned; standing at the bank only regenerates
+            int now = world.runEnergy();
+            long stamina = staminaMs();
+            energy.endLap(clock.now(), now);
+            doseDue = energy.doseDue(now, stamina);
+            if (doseDue) {
+                logger.info("Stamina dose due: {}% run energy, {}ms of stamina left", now, stamina);
+            }
+            return scheduler.reevaluate();
+        }
+    }
+
+    /**
+     * Brings the inventory to the trip's loadout in one batch of bank operations: bars
+     * and leftovers out, then the coal bag, its fill, the ore and the coal. A bag that
+     * comes out of the bank is filled in the next batch, once it is held. On a stamina
+     * lap the batch stops at the potion, and the rest follows once it is drunk.
+     */
+    private final class Restock extends FurnaceNode {
+        Restock() {
+            super("Restock", 40, FurnaceState.BANKING);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return world.bankOpen() && trip != null
+                && (fillExpected >= 0 || !loadout(world).satisfiedBy(inventory));
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            if (fillExpected >= 0) {
+                // The wait is over and the bank's coal never moved: with coal still there, the bag was full
+                if (bank.contains(COAL_ID)) {
+                    logger.debug("Coal bag took nothing, counting it as full");
+                    bagCoal = bagCapacity;
+                }
+                fillExpected = -1;
+                return scheduler.reevaluate();
+            }
+            // Built once here; the wait only reads it, so the target holds still while it lands
+            List<BankPlanner.Action> actions = loadout(world).plan(inventory);
+            logger.debug("Restocking: {}", actions);
+            for (BankPlanner.Action action : actions) {
+                send(action);
+            }
+            return scheduler.await(restockWait);
+        }
+    }
+
+    /**
+     * Everything above is satisfied: close the bank and head for the conveyor
+     */
+    private final class LeaveBank extends FurnaceNode {
+        LeaveBank() {
+            super("LeaveBank", 30, FurnaceState.BANKING);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return world.bankOpen();
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            logger.info("Ready to smelt! Moving to conveyor...");
+            planner.carried(inventory.count(oreId), inventory.count(COAL_ID) + bagCoal);
+            energy.startLap(clock.now(), api.runEnergy(), staminaMs());
+            api.closeBank();
+            lastTrip = trip;
+            trip = null;
+            loadOnBelt = false;
+            retreating = false;
+            return scheduler.reevaluate();
+        }
+    }
+
+    // Furnace side, bank closed
+
+    /**
+     * Puts the ore and coal on the conveyor, walking back into reach if needed.
+     * Gives up and returns to the bank if the load is still held after the deadline.
+     */
+    private final class DepositLoad extends FurnaceNode {
+        DepositLoad() {
+            super("DepositLoad", 25, FurnaceState.DEPOSITING_ORE);
+        }
+
+        @Override
+        FurnaceState state(WorldSnapshot world) {
+            return world.canReach(CONVEYOR_BELT_ID) ? FurnaceState.DEPOSITING_ORE : FurnaceState.WALKING_TO_CONVEYOR;
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return !world.bankOpen() && !retreating && holdsLoad();
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            // Room for one retried click: twice the load wait's timeout, 8 s until it has data
+            if (depositDeadline.arm(2 * loadWait.timeoutMs())) {
+                logger.debug("Depositing load...");
+            }
+            if (depositDeadline.hasExpired()) {
+                logger.warn("Failed to reach/deposit at conveyor before the deadline, returning to bank");
+                depositDeadline.clear();
+                retreating = true;
+                return scheduler.reevaluate();
+            }
+
+            // Beside the belt without reaching it, the click below walks the last tile
+            if (!world.canReach(CONVEYOR_BELT_ID)
+                    && routes.walk(FurnaceRoutes.Stop.CONVEYOR, world.tile(), clock.now())) {
+                logger.debug("Walking to conveyor...");
+                return scheduler.nextTick();
+            }
+
+            boolean ore = inventory.contains(oreId);
+            if (api.interactObject(CONVEYOR_BELT_ID, "Put-ore-on")) {
+                barsPending |= ore;
+                loadOnBelt = true;
+                loading |= ore;
+                return scheduler.await(loadWait, Math.min(loadWait.timeoutMs(), depositDeadline.remaining()));
+            }
+            return scheduler.nextTick();
+        }
+    }
+
+    /**
+     * Empties the coal bag into the inventory once the load is on the belt, again after
+     * that coal is on too if a cape's bag held more than the inventory takes
+     */
+    private final class EmptyCoalBag extends FurnaceNode {
+        EmptyCoalBag() {
+            super("EmptyCoalBag", 24, FurnaceState.DEPOSITING_ORE);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return !world.bankOpen() && bagCoal > 0 && loadOnBelt && !holdsLoad();
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            logger.debug("Attempting to empty coal bag...");
+            if (api.interactInventory(COAL_BAG_ID, "Empty")) {
+                emptyingBag = true;
+                return scheduler.await(emptyBagWait);
+            }
+            return scheduler.nextTick();
+        }
+    }
+
+    /**
+     * Collects the bars from the bar dispenser once the trip's ore and coal are all on
+     * the belt. Handles the quantity dialogue, and counts whichever bar type came out.
+     */
+    private final class CollectBars extends FurnaceNode {
+        CollectBars() {
+            super("CollectBars", 22, FurnaceState.COLLECTING_BARS);
+        }
+
+        @Override
+        FurnaceState state(WorldSnapshot world) {
+            return world.canReach(BAR_DISPENSER_ID) ? FurnaceState.COLLECTING_BARS : FurnaceState.WALKING_TO_COLLECTOR;
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return !world.bankOpen() && barsPending && loadOnBelt && bagCoal == 0 && !holdsLoad();
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            // Bars in the inventory: count them and leave the rest to the bank nodes
+            int held = barsHeld();
+            if (held > 0) {
+                barsMade += held;
+                logger.info("Successfully collected bars (Count: {})", held);
+                barsPending = false;
+                return scheduler.reevaluate();
+            }
+
+            // The quantity dialogue from a previous Take is still open
+            if (world.inDialogue()) {
+                api.type("1");
+                logger.debug("Pressed 1 to take all bars");
+                return scheduler.await(quantityWait);
+            }
+
+            // Beside the dispenser without reaching it, the Take below walks the last tile
+            if (!world.canReach(BAR_DISPENSER_ID)
+                    && routes.walk(FurnaceRoutes.Stop.DISPENSER, world.tile(), clock.now())) {
+                return scheduler.nextTick();
+            }
+
+            // Not out yet: hold the click until it would reach the dispenser just after they
+            // land. It lands once the walk is done, or on the next tick from beside it
+            if (barsOut() == 0 && furnace.readyAt() >= 0) {
+                int ticksAway = FurnaceModel.runTicks(world.tile(), BAR_DISPENSER_TILE);
+                long clickAt = furnace.readyAt() - (Math.max(1, ticksAway) - 1) * TickClock.TICK_MS;
+                long now = clock.now();
+                if (clickAt > now) {
+                    return scheduler.until(() -> barsOut() > 0, clickAt - now);
+                }
+            }
+
+            // Clicked before the bars were out, or nothing known to be melting: wait for the
+            // dispenser varbit or the smithing XP that comes with the bars
+            if ((takeWait.outcome() == Wait.Outcome.FAILED || (barsOut() == 0 && furnace.readyAt() < 0))
+                    && !waitedForBars) {
+                waitedForBars = true;
+                return scheduler.await(barsReadyWait);
+            }
+
+            if (api.interactObject(BAR_DISPENSER_ID, "Take")) {
+                logger.debug("Interacting with bar dispenser...");
+                waitedForBars = false;
+                return scheduler.await(takeWait);
+            }
+            return scheduler.nextTick();
+        }
+    }
+
+    /**
+     * Fallback whenever the bank is closed and nothing at the furnace applies:
+     * walks to the bank and opens it
+     */
+    private final class WalkToBank extends FurnaceNode {
+        WalkToBank() {
+            super("WalkToBank", 0, FurnaceState.WALKING_TO_BANK);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return !world.bankOpen();
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            logger.debug("Current state: WALKING_TO_BANK (bars={})", barsHeld());
+
+            // Click the chest and let the click walk there; the bank nodes take over once it opens
+            logger.debug("Attempting to open bank...");
+            if (openBank()) {
+                return scheduler.await(bankWait);
+            }
+
+            // Chest not clickable from here: walk towards it
+            if (routes.walk(FurnaceRoutes.Stop.BANK, world.tile(), clock.now())) {
+                logger.debug("Walking to bank...");
+            }
+            return scheduler.nextTick();
+        }
+    }
+
+    // Bank calls return once the items have moved, which can be just past a tick boundary
+    // the snapshot still treats as current, so each one forces a re-read. Each is applied
+    // to the bank cache as it is sent, from the inventory as it was
+
+    private void withdraw(int id, int amount) {
+        bank.withdrew(id, amount);
+        api.withdraw(id, amount);
+        inventory.invalidate();
+    }
+
+    private void depositAll(int id) {
+        bank.deposited(id, inventory.count(id));
+        api.depositAll(id);
+        inventory.invalidate();
+    }
+
+    private void depositAllExcept(int id) {
+        int kinds = inventory.heldIds(held);
+        for (int i = 0; i < kinds; i++) {
+            if (held[i] != id) {
+                bank.deposited(held[i], inventory.count(held[i]));
+            }
+        }
+        api.depositAllExcept(id);
+        inventory.invalidate();
+    }
+
+    /**
+     * Rests the mouse on the object the next pass clicks, so that click goes out the
+     * moment the current wait ends rather than after the mouse gets there
+     */
+    private void hover(int objectId, String action) {
+        if (api.hoverObject(objectId, action)) {
+            logger.debug("Hovering {} ahead of the next click", objectId);
+        }
+    }
+
+    /**
+     * @return true if the player is neither moving nor animating
+     */
+    private boolean idle() {
+        return !api.isMoving() && api.playerAnimation() == -1;
+    }
+
+    @Override
+    public List<Wait> waits() {
+        return Arrays.asList(loadWait, emptyBagWait, takeWait, quantityWait, barsReadyWait, bankWait, restockWait, drinkWait);
+    }
+
+    /**
+     * Opens the bank through the cached chest handle, falling back to the
+     * API's own bank search if the chest is not loaded
+     * @return true if the interaction was sent
+     */
+    private boolean openBank() {
+        return api.objectExists(BANK_CHEST_ID) ? api.interactObject(BANK_CHEST_ID, "Use") : api.openBank();
+    }
+}
@@ -0,0 +1,56 @@
+package org.dreambot.blastfurnace;
+
+import org.dreambot.core.Wait;
+
+import java.util.List;
+
+/*
+ * FurnaceLogic.java
+ *
+ * What a Blast Furnace script shell, or the simulator, needs from the decision logic.
+ */
+public interface FurnaceLogic {
+
+    /**
+     * Runs one decision pass. The caller updates the TickClock first.
+     * @return Sleep duration in milliseconds before the next pass
+     */
+    int loop();
+
+    FurnaceState state();
+
+    /**
+     * @return Bars made so far, as counted by the logic
+     */
+    int barsMade();
+
+    /**
+     * @return true once the logic has given up, e.g. out of materials
+     */
+    boolean isStopped();
+
+    /**
+     * @return Paint line with the cost of picking each pass's node
+     */
+    String validateSummary();
+
+    /**
+     * @return Log line with the learned load-to-bars latency
+     */
+    String furnaceSummary();
+
+    /**
+     * @return Paint line with the last planned trip and the pot's coal
+     */
+    String planSummary();
+
+    /**
+     * @return Paint line with run energy and when the next stamina dose is due
+     */
+    String energySummary();
+
+    /**
+     * @return The logic's interaction waits, for their outcome summaries
+     */
+    List<Wait> waits();
+}
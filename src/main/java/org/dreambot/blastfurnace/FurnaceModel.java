@@ -0,0 +1,120 @@
+package org.dreambot.blastfurnace;
+
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.core.TickClock;
+import org.dreambot.core.game.GameApi;
+import org.dreambot.core.metrics.LatencyHistogram;
+
+/*
+ * FurnaceModel.java
+ *
+ * What the Blast Furnace itself holds, read from its varbits, and when the next bars
+ * will be out.
+ *
+ * Key functionality:
+ * - Coal in the melting pot and bars in the dispenser, per type, straight from the
+ *   varbits the furnace interface uses
+ * - loaded() marks the moment a trip's ore went onto the belt; the time from
+ *   there to bars showing in the dispenser is learned into a histogram
+ * - readyAt() predicts when the bars will be out (p95 of what was seen, three ticks
+ *   until there is data), so the collector can click Take so it arrives as they land
+ *   and otherwise waits beside the dispenser instead of clicking speculatively
+ */
+final class FurnaceModel {
+    // Melting pot varbit
+    static final int VARBIT_COAL = 949;
+
+    // Belt ride plus melting, before anything has been observed
+    private static final long DEFAULT_LATENCY_MS = 3 * TickClock.TICK_MS;
+    private static final int MIN_SAMPLES = 10;
+
+    // Share of observed latencies readyAt() covers, as a fraction for LatencyHistogram
+    private static final double READY_PERCENTILE = 0.95;
+
+    private final GameApi api;
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private long loadedAt = -1;
+
+    FurnaceModel(GameApi api) {
+        this.api = api;
+    }
+
+    /**
+     * @param barId Bar item ID
+     * @return Bars of that type waiting in the dispenser
+     */
+    int bars(int barId) {
+        int varbit = barVarbit(barId);
+        return varbit > 0 ? api.varbit(varbit) : 0;
+    }
+
+    int coalInPot() {
+        return api.varbit(VARBIT_COAL);
+    }
+
+    /**
+     * Marks the trip's ore going onto the belt; bars are predicted from here
+     * @param now Time the ore left the inventory
+     */
+    void loaded(long now) {
+        loadedAt = now;
+    }
+
+    /**
+     * Learns the load-to-bars latency the first time bars are seen after a load
+     * @param barId Bar item ID the trip makes
+     * @param now Current time
+     */
+    void observe(int barId, long now) {
+        if (loadedAt >= 0 && bars(barId) > 0) {
+            latency.record(now - loadedAt);
+            loadedAt = -1;
+        }
+    }
+
+    /**
+     * @return Predicted time the bars come out, or -1 if no load is in flight
+     */
+    long readyAt() {
+        if (loadedAt < 0) {
+            return -1;
+        }
+        long expected = latency.count() < MIN_SAMPLES ? DEFAULT_LATENCY_MS : latency.percentile(READY_PERCENTILE);
+        return loadedAt + expected;
+    }
+
+    LatencyHistogram latency() {
+        return latency;
+    }
+
+    /**
+     * @param from Player tile, may be null
+     * @param to Destination tile
+     * @return Ticks to get there running (two tiles a tick), ignoring obstacles
+     */
+    static int runTicks(Tile from, Tile to) {
+        if (from == null) {
+            return 0;
+        }
+        int tiles = Math.max(Math.abs(from.getX() - to.getX()), Math.abs(from.getY() - to.getY()));
+        return (tiles + 1) / 2;
+    }
+
+    /**
+     * @return Dispenser varbit for the bar, 0 if the furnace does not make it
+     */
+    static int barVarbit(int barId) {
+        switch (barId) {
+            case 2349: return 941;   // Bronze
+            case 2351: return 942;   // Iron
+            case 2353: return 943;   // Steel
+            case 2359: return 944;   // Mithril
+            case 2361: return 945;   // Adamantite
+            case 2363: return 946;   // Runite
+            case 2357: return 947;   // Gold
+            case 2355: return 948;   // Silver
+            default: return 0;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.dreambot.blastfurnace;
+
+import org.dreambot.core.WorldSnapshot;
+import org.dreambot.core.node.Node;
+
+/*
+ * FurnaceNode.java
+ *
+ * Node that also reports which FurnaceState it stands for, so the paint and the state
+ * timings keep working on top of the node engine.
+ */
+abstract class FurnaceNode extends Node {
+    private final FurnaceState state;
+
+    FurnaceNode(String name, int priority, FurnaceState state) {
+        super(name, priority);
+        this.state = state;
+    }
+
+    /**
+     * @param world Snapshot for the current tick
+     * @return State to report while this node is the current one
+     */
+    FurnaceState state(WorldSnapshot world) {
+        return state;
+    }
+}
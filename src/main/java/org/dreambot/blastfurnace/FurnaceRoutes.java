@@ -0,0 +1,119 @@
+package org.dreambot.blastfurnace;
+
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.core.TickClock;
+import org.dreambot.core.game.GameApi;
+import org.dreambot.core.log.ScriptLog;
+
+/*
+ * FurnaceRoutes.java
+ *
+ * Walks between the bank chest, conveyor and dispenser with one minimap click on the
+ * stop, instead of asking the web walker each time.
+ *
+ * Key functionality:
+ * - The furnace room between the three stops is open floor and every stop is on the
+ *   minimap from every other, so the client's own pathing gets there from one click
+ * - walk() doesn't click again while the player is already heading to the same stop
+ * - Falls back to the web walker when the player is further out than the minimap
+ *   reaches, or when a click left the player standing still, until it gets to that stop
+ * - Beside the stop there is nothing to walk, and walk() says so: the caller's object
+ *   click walks the last tile itself
+ */
+final class FurnaceRoutes {
+    // Well inside the minimap's radius, so a click never lands on its edge
+    private static final int MINIMAP_RANGE = 12;
+
+    // A click that hasn't moved the player in this long ran into something
+    private static final long BLOCKED_MS = 2 * TickClock.TICK_MS;
+
+    /**
+     * Where the player stands to use each object
+     */
+    enum Stop {
+        BANK(BlastFurnaceLogic.BANK_CHEST_TILE),
+        CONVEYOR(BlastFurnaceLogic.CONVEYOR_BELT_TILE),
+        DISPENSER(BlastFurnaceLogic.BAR_DISPENSER_TILE);
+
+        final Tile tile;
+
+        Stop(Tile tile) {
+            this.tile = tile;
+        }
+    }
+
+    private final GameApi api;
+    private final ScriptLog logger;
+
+    // The last click, to skip repeats and notice one that went nowhere
+    private Stop heading;
+    private Tile clickedFrom;
+    private long clickedAt;
+    private long calledAt = -1;
+    private final boolean[] blocked = new boolean[Stop.values().length];
+
+    FurnaceRoutes(GameApi api, ScriptLog logger) {
+        this.api = api;
+        this.logger = logger;
+    }
+
+    /**
+     * Moves the player towards a stop
+     * @param to Stop to walk to
+     * @param player Player tile, may be null
+     * @param now Current time
+     * @return true if a walk was sent or one already sent is still under way; false when
+     *         none could be sent, including beside the stop, so the caller clicks the
+     *         object instead
+     */
+    boolean walk(Stop to, Tile player, long now) {
+        if (player == null) {
+            return false;
+        }
+        // A walk nothing drove for a while was given up on; its click says nothing now
+        if (now - calledAt > BLOCKED_MS) {
+            heading = null;
+        }
+        calledAt = now;
+        int distance = distance(player, to.tile);
+        if (distance <= 1) {
+            blocked[to.ordinal()] = false;
+            heading = null;
+            return false;
+        }
+
+        boolean moving = api.isMoving();
+        if (heading == to && !moving && !blocked[to.ordinal()] && same(player, clickedFrom)
+                && now - clickedAt >= BLOCKED_MS) {
+            logger.warn("Walk to {} looks blocked at {}, {}; using the web walker", to, player.getX(), player.getY());
+            blocked[to.ordinal()] = true;
+        }
+
+        if (blocked[to.ordinal()] || distance > MINIMAP_RANGE) {
+            heading = null;
+            if (!api.shouldWalk()) {
+                return true;
+            }
+            return api.walk(to.tile);
+        }
+
+        if (heading == to && moving) {
+            return true;
+        }
+        if (api.clickMinimap(to.tile)) {
+            heading = to;
+            clickedFrom = player;
+            clickedAt = now;
+            return true;
+        }
+        return false;
+    }
+
+    private static int distance(Tile a, Tile b) {
+        return Math.max(Math.abs(a.getX() - b.getX()), Math.abs(a.getY() - b.getY()));
+    }
+
+    private static boolean same(Tile a, Tile b) {
+        return a != null && b != null && a.getX() == b.getX() && a.getY() == b.getY() && a.getZ() == b.getZ();
+    }
+}
@@ -0,0 +1,252 @@
+package org.dreambot.blastfurnace;
+
+import org.dreambot.api.methods.skills.Skill;
+import org.dreambot.api.methods.skills.SkillEvent;
+import org.dreambot.api.script.AbstractScript;
+import org.dreambot.api.script.listener.ChatListener;
+import org.dreambot.api.script.listener.ExperienceListener;
+import org.dreambot.api.script.listener.ItemContainerListener;
+import org.dreambot.api.script.listener.PaintListener;
+import org.dreambot.api.wrappers.items.Item;
+import org.dreambot.api.wrappers.widgets.message.Message;
+import org.dreambot.core.TickClock;
+import org.dreambot.core.Wait;
+import org.dreambot.core.event.ClientEvents;
+import org.dreambot.core.game.GameApi;
+import org.dreambot.core.game.LiveGameApi;
+import org.dreambot.core.log.LogLevel;
+import org.dreambot.core.log.ScriptLog;
+import org.dreambot.core.metrics.RateEstimator;
+import org.dreambot.core.metrics.StateTimings;
+import org.dreambot.core.metrics.TimingsDump;
+import org.dreambot.core.paint.StatsPanel;
+
+import java.awt.Graphics;
+
+/*
+ * FurnaceScript.java
+ *
+ * The client-facing shell every Blast Furnace script shares: runs BlastFurnaceLogic for
+ * one recipe and adds the paint, metrics and client listeners.
+ *
+ * Key functionality:
+ * - Checks for ice gloves on start and stops when the logic runs out of materials
+ * - Forwards inventory, chat and XP callbacks to the event bus the logic's waits end on
+ * - Paint with XP, profit, bars/hr over recent windows, lap timings and the trip plan
+ * - Lap timings, wait outcomes and the learned furnace latency logged on exit
+ *
+ * A script is a subclass with its manifest, passing its name, recipe and prices here.
+ */
+public abstract class FurnaceScript extends AbstractScript
+        implements PaintListener, ItemContainerListener, ChatListener, ExperienceListener {
+
+    private final String name;
+
+    // Buffered, level-gated logging; formatting and I/O happen on a background thread
+    private final ScriptLog logger;
+
+    // Tick alignment for every delay returned from onLoop
+    private final TickClock tickClock = new TickClock();
+
+    // Live client access shared with the logic
+    private final GameApi api = new LiveGameApi(tickClock);
+
+    // Decision logic; this class only adds the client shell, paint and metrics
+    private final BlastFurnaceLogic logic;
+
+    // Overlay text, rebuilt on the script thread and blitted by onPaint
+    private final StatsPanel panel = new StatsPanel(5, 5, 250, 13);
+    private FurnaceState paintedState;
+
+    // Performance tracking
+    private long startTime;
+    private int startXP;
+
+    // Recent-window throughput; whole-run averages hide a slowdown for hours
+    private final RateEstimator xpRate = new RateEstimator(RateEstimator.FIVE_MINUTES);
+    private final RateEstimator barRate = new RateEstimator(RateEstimator.FIVE_MINUTES);
+
+    // Time spent per state and per bank-to-bank lap, dumped every five minutes and on exit
+    private final StateTimings<FurnaceState> timings = new StateTimings<>(FurnaceState.class, FurnaceState.BANKING);
+    private final TimingsDump timingsDump;
+
+    private final ProfitModel profitModel;
+
+    /**
+     * @param name Script name for the log, paint and timings file, e.g. "Steel Bar Smelter"
+     * @param recipe Bar to make
+     * @param profitModel Prices for the profit line
+     */
+    protected FurnaceScript(String name, BarRecipe recipe, ProfitModel profitModel) {
+        String fileName = name.replace(" ", "");
+        this.name = name;
+        this.logger = new ScriptLog(fileName, LogLevel.INFO);
+        this.logic = new BlastFurnaceLogic(api, tickClock, logger, recipe);
+        this.timingsDump = new TimingsDump(fileName, timings, logger, tickClock);
+        this.profitModel = profitModel;
+    }
+
+    /**
+     * Initializes the script and performs necessary checks on startup
+     * Verifies ice gloves are equipped before starting
+     */
+    @Override
+    public void onStart() {
+        logger.start();
+        logger.info("Starting {}", name);
+        // Ice gloves are required for efficient bar collection
+        if (!api.isEquipped("Ice gloves")) {
+            logger.error("Please equip ice gloves!");
+            stop();
+            return;
+        }
+        startTime = System.currentTimeMillis();
+        startXP = api.experience(Skill.SMITHING);
+    }
+
+    /**
+     * Main loop of the script, handles state transitions and actions
+     * @return Sleep duration in milliseconds before next loop
+     */
+    @Override
+    public int onLoop() {
+        tickClock.update();
+        long now = tickClock.now();
+        timings.observe(logic.state(), now);
+        timingsDump.maybeWrite(now);
+        updatePaint();
+
+        int delay = logic.loop();
+        if (logic.isStopped()) {
+            stop();
+        }
+        return delay;
+    }
+
+    /**
+     * Cleanup method called when script exits
+     */
+    @Override
+    public void onExit() {
+        logger.info("{} ended!", name);
+        logger.info(timings.lapSummary());
+        for (Wait wait : logic.waits()) {
+            logger.info(wait.summary());
+        }
+        logger.info(logic.furnaceSummary());
+        timingsDump.write();
+        logger.close();
+    }
+
+    /**
+     * Implements the paint overlay with clean, readable stats.
+     * Only blits the cached panel; the text is built in updatePaint()
+     */
+    @Override
+    public void onPaint(Graphics g) {
+        panel.paint(g);
+    }
+
+    // Client listener callbacks, forwarded to the event bus the logic's waits end on
+
+    @Override
+    public void onInventoryItemChanged(Item incoming, Item outgoing) {
+        ClientEvents.itemChanged(api.events(), incoming, outgoing);
+    }
+
+    @Override
+    public void onInventoryItemAdded(Item item) {
+        ClientEvents.itemAdded(api.events(), item);
+    }
+
+    @Override
+    public void onInventoryItemRemoved(Item item) {
+        ClientEvents.itemRemoved(api.events(), item);
+    }
+
+    @Override
+    public void onGameMessage(Message message) {
+        ClientEvents.gameMessage(api.events(), message);
+    }
+
+    @Override
+    public void onGained(SkillEvent event) {
+        ClientEvents.experience(api.events(), event);
+    }
+
+    /**
+     * Rebuilds the overlay text at most once per second, or straight away on a state change.
+     * Runs on the script thread so paint never touches the client or recomputes stats.
+     */
+    private void updatePaint() {
+        long now = System.currentTimeMillis();
+        if (!panel.isDue(now) && logic.state() == paintedState) {
+            return;
+        }
+        paintedState = logic.state();
+        xpRate.record(now, getXPGained());
+        barRate.record(now, logic.barsMade());
+
+        // Calculate profit stats and format everything once for the paint thread
+        ProfitModel.Stats stats = calculateStats();
+        panel.publish(now, new String[] {
+            "DreamBot " + name,
+            "Time running: " + getRunTime(),
+            // XP stats with commas for readability
+            String.format("XP: %,d (%,d/hr)", getXPGained(), getXPPerHour()),
+            String.format("Profit/hr: %,d gp", stats.profit()),
+            String.format("Efficiency: %.1f%%", stats.efficiency()),
+            String.format("Bars/hr: %,d", stats.barsPerHour()),
+            String.format("Bars/hr 5m/60m/EWMA: %,d / %,d / %,d",
+                barRate.perHour(now, RateEstimator.FIVE_MINUTES),
+                barRate.perHour(now, RateEstimator.SIXTY_MINUTES),
+                barRate.ewmaPerHour()),
+            logic.energySummary(),
+            timings.lapSummary(),
+            timings.slowestSummary(),
+            logic.validateSummary(),
+            logic.planSummary(),
+            "Current state: " + logic.state()
+        });
+    }
+
+    /**
+     * Calculates runtime in HH:MM:SS format
+     */
+    private String getRunTime() {
+        long milliseconds = System.currentTimeMillis() - startTime;
+        long seconds = milliseconds / 1000;
+        long minutes = seconds / 60;
+        long hours = minutes / 60;
+        minutes %= 60;
+        seconds %= 60;
+
+        return String.format("%02d:%02d:%02d", hours, minutes, seconds);
+    }
+
+    /**
+     * Calculates total XP gained
+     */
+    private int getXPGained() {
+        return api.experience(Skill.SMITHING) - startXP;
+    }
+
+    /**
+     * Calculates XP gained per hour over the last 15 minutes
+     */
+    private int getXPPerHour() {
+        return xpRate.perHour(System.currentTimeMillis(), RateEstimator.FIFTEEN_MINUTES);
+    }
+
+    /**
+     * Calculates bars produced per hour over the last 15 minutes
+     */
+    private int getBarsPerHour() {
+        return barRate.perHour(System.currentTimeMillis(), RateEstimator.FIFTEEN_MINUTES);
+    }
+
+    private ProfitModel.Stats calculateStats() {
+        // Bars measured from bars actually collected rather than inferred from XP
+        return profitModel.calculate(getXPPerHour(), getBarsPerHour());
+    }
+}
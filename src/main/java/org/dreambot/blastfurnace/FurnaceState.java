@@ -0,0 +1,14 @@
+package org.dreambot.blastfurnace;
+
+/**
+ * Script states representing each stage of a Blast Furnace trip.
+ * The furnace scripts cycle through these to maintain continuous production.
+ */
+public enum FurnaceState {
+    BANKING,             // Managing resources and stamina potions
+    DEPOSITING_ORE,      // Putting ores on conveyor belt
+    COLLECTING_BARS,     // Taking completed bars from dispenser
+    WALKING_TO_BANK,     // Moving to bank location
+    WALKING_TO_CONVEYOR, // Moving to conveyor belt
+    WALKING_TO_COLLECTOR // Moving to bar dispenser
+}
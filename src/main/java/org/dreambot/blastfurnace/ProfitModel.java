@@ -0,0 +1,114 @@
+package org.dreambot.blastfurnace;
+
+/*
+ * ProfitModel.java
+ *
+ * Profit and efficiency figures for the paint, shared by both furnace scripts.
+ *
+ * Key functionality:
+ * - Holds one bar type's prices and the Blast Furnace running costs
+ * - Turns measured XP/hr and bars/hr into revenue, costs, profit and efficiency
+ *
+ * Pure arithmetic on its arguments, so it can be benchmarked without a client.
+ */
+public final class ProfitModel {
+    // Blast Furnace costs that do not depend on the bar type
+    private static final int STAMINA_DOSES_PER_HOUR = 9;
+    private static final int HOURLY_FEE = 72000;
+
+    private final int barPrice;
+    private final int orePrice;
+    private final int coalPerBar;
+    private final int coalPrice;
+    private final int staminaDosePrice;
+    private final double maxXpPerHour;
+
+    /**
+     * @param barPrice Sell price of one bar
+     * @param orePrice Buy price of the primary ore
+     * @param coalPerBar Coal used per bar at the Blast Furnace
+     * @param coalPrice Buy price of one coal
+     * @param staminaDosePrice Buy price of one stamina dose
+     * @param maxXpPerHour XP/hr treated as 100% efficiency
+     */
+    public ProfitModel(int barPrice, int orePrice, int coalPerBar, int coalPrice,
+                       int staminaDosePrice, double maxXpPerHour) {
+        this.barPrice = barPrice;
+        this.orePrice = orePrice;
+        this.coalPerBar = coalPerBar;
+        this.coalPrice = coalPrice;
+        this.staminaDosePrice = staminaDosePrice;
+        this.maxXpPerHour = maxXpPerHour;
+    }
+
+    /**
+     * @param xpPerHour Measured XP/hr
+     * @param barsPerHour Measured bars/hr
+     * @return Stats for the paint, all zero until XP/hr is known
+     */
+    public Stats calculate(double xpPerHour, int barsPerHour) {
+        // If we just started (XP/hr is 0), return all zeros
+        if (xpPerHour == 0) {
+            return new Stats(0, 0, 0, 0, 0, new Costs(0, 0, 0, 0));
+        }
+
+        int oreCost = barsPerHour * orePrice;
+        int coalCost = barsPerHour * coalPerBar * coalPrice;
+        int staminaCost = STAMINA_DOSES_PER_HOUR * staminaDosePrice;
+
+        Costs costs = new Costs(oreCost, coalCost, staminaCost, HOURLY_FEE);
+
+        int totalCosts = oreCost + coalCost + staminaCost + HOURLY_FEE;
+        int revenue = barsPerHour * barPrice;
+        int profit = revenue - totalCosts;
+
+        double efficiency = (xpPerHour / maxXpPerHour) * 100;
+
+        return new Stats(barsPerHour, efficiency, profit, totalCosts, revenue, costs);
+    }
+
+    public static final class Stats {
+        private final int barsPerHour;
+        private final double efficiency;
+        private final int profit;
+        private final int totalCosts;
+        private final int revenue;
+        private final Costs costs;
+
+        public Stats(int barsPerHour, double efficiency, int profit,
+                     int totalCosts, int revenue, Costs costs) {
+            this.barsPerHour = barsPerHour;
+            this.efficiency = efficiency;
+            this.profit = profit;
+            this.totalCosts = totalCosts;
+            this.revenue = revenue;
+            this.costs = costs;
+        }
+
+        public int barsPerHour() { return barsPerHour; }
+        public double efficiency() { return efficiency; }
+        public int profit() { return profit; }
+        public int totalCosts() { return totalCosts; }
+        public int revenue() { return revenue; }
+        public Costs costs() { return costs; }
+    }
+
+    public static final class Costs {
+        private final int ore;
+        private final int coal;
+        private final int stamina;
+        private final int fee;
+
+        public Costs(int ore, int coal, int stamina, int fee) {
+            this.ore = ore;
+            this.coal = coal;
+            this.stamina = stamina;
+            this.fee = fee;
+        }
+
+        public int ore() { return ore; }
+        public int coal() { return coal; }
+        public int stamina() { return stamina; }
+        public int fee() { return fee; }
+    }
+}
@@ -0,0 +1,189 @@
+package org.dreambot.blastfurnace;
+
+import org.dreambot.core.TickClock;
+
+/*
+ * RunEnergyModel.java
+ *
+ * Learns what a lap does to run energy and decides which bank visit needs a stamina dose.
+ *
+ * Key functionality:
+ * - Per lap, from leaving the bank to opening it again: the change in energy and how far
+ *   it dipped below the start, learned separately for laps run wholly with and wholly
+ *   without the stamina effect. Weight carried and agility level show up in these
+ *   directly, so neither is modelled
+ * - forecast() runs those laps forward from the current energy and stamina time left,
+ *   splitting a lap the effect runs out in
+ * - doseDue() asks for a dose only when the coming lap would otherwise dip below
+ *   MIN_ENERGY, so the dose lands on the last visit before it is needed and no lap is
+ *   walked
+ * - Falls back to the fixed threshold until a few plain laps have been seen
+ */
+final class RunEnergyModel {
+    // Stamina effect active, and its time left in units of ten ticks
+    static final int VARBIT_STAMINA_ACTIVE = 25;
+    static final int VARBIT_STAMINA = 24;
+    static final long STAMINA_UNIT_MS = 10 * TickClock.TICK_MS;
+
+    // Lowest energy a lap may dip to; the player walks at 0
+    static final int MIN_ENERGY = 5;
+
+    // Drink at or below this until the model has data
+    static final int FALLBACK_THRESHOLD = 30;
+
+    // Share of the drain left while the stamina effect lasts, until stamina laps are seen
+    private static final double STAMINA_DRAIN = 0.3;
+
+    private static final int MIN_SAMPLES = 3;
+    private static final double ALPHA = 0.2;
+
+    /**
+     * Exponentially weighted mean of one per-lap quantity
+     */
+    private static final class Average {
+        double value;
+        int count;
+
+        void add(double sample) {
+            value = count == 0 ? sample : value + ALPHA * (sample - value);
+            count++;
+        }
+    }
+
+    private final Average lapMs = new Average();
+    private final Average plainDelta = new Average();
+    private final Average plainDip = new Average();
+    private final Average staminaDelta = new Average();
+    private final Average staminaDip = new Average();
+
+    // Lap in progress, lapStart -1 when none
+    private long lapStart = -1;
+    private int startEnergy;
+    private long startStaminaMs;
+    private int lowest;
+
+    /**
+     * Starts a lap on leaving the bank
+     * @param now Current time
+     * @param energy Run energy, 0 to 100
+     * @param staminaMs Stamina effect time left
+     */
+    void startLap(long now, int energy, long staminaMs) {
+        lapStart = now;
+        startEnergy = energy;
+        startStaminaMs = staminaMs;
+        lowest = energy;
+    }
+
+    /**
+     * Tracks the lowest point of the lap in progress
+     * @param energy Run energy, 0 to 100
+     */
+    void observe(int energy) {
+        if (lapStart >= 0 && energy < lowest) {
+            lowest = energy;
+        }
+    }
+
+    /**
+     * Ends the lap on reaching the bank and learns from it. Laps the stamina effect ran
+     * out in are timed but teach neither rate.
+     * @param now Current time
+     * @param energy Run energy, 0 to 100
+     */
+    void endLap(long now, int energy) {
+        if (lapStart < 0) {
+            return;
+        }
+        long duration = now - lapStart;
+        lapMs.add(duration);
+        lowest = Math.min(lowest, energy);
+        if (startStaminaMs >= duration) {
+            staminaDelta.add(energy - startEnergy);
+            staminaDip.add(startEnergy - lowest);
+        } else if (startStaminaMs == 0) {
+            plainDelta.add(energy - startEnergy);
+            plainDip.add(startEnergy - lowest);
+        }
+        lapStart = -1;
+    }
+
+    /**
+     * @return true once enough plain laps are in to forecast from
+     */
+    boolean isTrained() {
+        return plainDelta.count >= MIN_SAMPLES;
+    }
+
+    /**
+     * @param energy Run energy now
+     * @param staminaMs Stamina effect time left
+     * @return true if this bank visit needs a dose to run the coming lap
+     */
+    boolean doseDue(int energy, long staminaMs) {
+        if (!isTrained()) {
+            return energy <= FALLBACK_THRESHOLD;
+        }
+        return energy - dip(staminaMs) < MIN_ENERGY;
+    }
+
+    /**
+     * @param energy Run energy now
+     * @param staminaMs Stamina effect time left
+     * @param laps Laps ahead
+     * @return Expected energy at the bank after that many laps with no dose
+     */
+    int forecast(int energy, long staminaMs, int laps) {
+        double expected = energy;
+        for (int lap = 0; lap < laps; lap++) {
+            expected = Math.max(0, Math.min(100, expected + delta(staminaMs)));
+            staminaMs = Math.max(0, staminaMs - (long) lapMs.value);
+        }
+        return (int) Math.round(expected);
+    }
+
+    /**
+     * @param energy Run energy now
+     * @param staminaMs Stamina effect time left
+     * @param horizon Most laps to look ahead
+     * @return Laps until a visit needs a dose, horizon if none does within it
+     */
+    int lapsUntilDose(int energy, long staminaMs, int horizon) {
+        if (!isTrained()) {
+            return horizon;
+        }
+        double expected = energy;
+        for (int lap = 0; lap < horizon; lap++) {
+            if (expected - dip(staminaMs) < MIN_ENERGY) {
+                return lap;
+            }
+            expected = Math.max(0, Math.min(100, expected + delta(staminaMs)));
+            staminaMs = Math.max(0, staminaMs - (long) lapMs.value);
+        }
+        return horizon;
+    }
+
+    /**
+     * @return Expected energy change over a lap starting with this much stamina left
+     */
+    private double delta(long staminaMs) {
+        double stamina = staminaDelta.count > 0 ? staminaDelta.value : plainDelta.value * STAMINA_DRAIN;
+        return blend(staminaMs, stamina, plainDelta.value);
+    }
+
+    /**
+     * @return Expected dip below the starting energy over a lap starting with this much stamina left
+     */
+    private double dip(long staminaMs) {
+        double stamina = staminaDip.count > 0 ? staminaDip.value : plainDip.value * STAMINA_DRAIN;
+        return blend(staminaMs, stamina, plainDip.value);
+    }
+
+    /**
+     * @return The stamina value for the share of the lap the effect covers, the plain value for the rest
+     */
+    private double blend(long staminaMs, double stamina, double plain) {
+        double covered = lapMs.value > 0 ? Math.min(1, staminaMs / lapMs.value) : 0;
+        return covered * stamina + (1 - covered) * plain;
+    }
+}
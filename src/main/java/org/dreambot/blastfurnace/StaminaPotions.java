@@ -0,0 +1,51 @@
+package org.dreambot.blastfurnace;
+
+import org.dreambot.core.InventorySnapshot;
+import org.dreambot.core.WorldSnapshot;
+
+/*
+ * StaminaPotions.java
+ *
+ * The stamina potion search both furnace scripts run while banking on low energy.
+ *
+ * Key functionality:
+ * - One shared dose order (4 to 1) instead of an ID array rebuilt on every call
+ * - Inventory lookups go through the per-tick snapshot, bank lookups through the
+ *   snapshot's bank cache
+ */
+public final class StaminaPotions {
+    // Stamina potion IDs (4 to 1 dose)
+    private static final int[] IDS = {12625, 12627, 12629, 12631};
+
+    public static final int NONE = -1;
+
+    private StaminaPotions() {
+    }
+
+    /**
+     * @param inventory Current inventory snapshot
+     * @return ID of the highest-dose stamina potion held, or NONE
+     */
+    public static int inInventory(InventorySnapshot inventory) {
+        for (int id : IDS) {
+            if (inventory.contains(id)) {
+                return id;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * @param world Snapshot with the bank open
+     * @return ID of the highest-dose stamina potion in the bank, or NONE; answered from
+     *         the bank cache, without going back to the client
+     */
+    public static int inBank(WorldSnapshot world) {
+        for (int id : IDS) {
+            if (world.bankContains(id)) {
+                return id;
+            }
+        }
+        return NONE;
+    }
+}
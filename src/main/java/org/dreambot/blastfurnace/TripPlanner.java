@@ -0,0 +1,188 @@
+package org.dreambot.blastfurnace;
+
+import org.dreambot.core.TickClock;
+
+/*
+ * TripPlanner.java
+ *
+ * Decides what each bank-to-furnace trip carries so a recipe makes the most bars per
+ * hour.
+ *
+ * Key functionality:
+ * - Two ways to feed a recipe that needs more coal than the bag holds: full ore trips
+ *   with coal-only trips in between, or every trip split between ore and coal. The one
+ *   with more bars per hour under the trip cost model is used; with the pot carrying
+ *   coal between trips, the first gets the exact long-run coal ratio
+ * - Ore only goes on the belt when the pot already holds its coal, so the bars come out
+ *   as the ore lands instead of after the bag's coal (and iron makes steel, not iron).
+ *   The bag carries the next trip's coal whenever the pot has room for it
+ * - A smithing cape's bag holds more than the emptied inventory takes, so the extra only
+ *   gets used where it is worth emptying the bag twice
+ * - Never plans more coal than the pot can hold
+ * - Tracks the pot's coal from what the trips carried, for when the varbit reads 0
+ *
+ * Trip costs are the simulator's lap times: a plain trip, the extra for using the coal
+ * bag and for emptying it a second time, collecting bars, and a second withdraw.
+ */
+final class TripPlanner {
+    // The melting pot refuses coal past this
+    static final int POT_COAL_CAPACITY = 254;
+
+    // Coal bag capacity, and with a smithing cape
+    static final int BAG_CAPACITY = 27;
+    static final int CAPE_BAG_CAPACITY = 36;
+
+    // Trip cost model in milliseconds
+    private static final long TRIP_MS = 13 * TickClock.TICK_MS;
+    private static final long BAG_MS = 3 * TickClock.TICK_MS;
+    private static final long COLLECT_MS = 3 * TickClock.TICK_MS;
+    private static final long SPLIT_MS = TickClock.TICK_MS;
+    private static final long EMPTY_AGAIN_MS = 2 * TickClock.TICK_MS;
+
+    /**
+     * How trips feed a recipe whose ore needs more coal than the bag carries
+     */
+    enum Mode {
+        ORE_OR_COAL,   // Full ore trips, coal-only trips when the pot runs short
+        SPLIT          // Every trip carries some ore and some coal
+    }
+
+    /**
+     * One trip's load
+     */
+    static final class Trip {
+        final int ore;
+        final int coal;
+        final boolean fillBag;
+
+        Trip(int ore, int coal, boolean fillBag) {
+            this.ore = ore;
+            this.coal = coal;
+            this.fillBag = fillBag;
+        }
+
+        /**
+         * @return true if the trip ends at the dispenser
+         */
+        boolean makesBars() {
+            return ore > 0;
+        }
+
+        @Override
+        public String toString() {
+            return ore + " ore, " + coal + " coal" + (fillBag ? " + bag" : "");
+        }
+    }
+
+    private final BarRecipe recipe;
+    private long expectedPotCoal;
+
+    TripPlanner(BarRecipe recipe) {
+        this.recipe = recipe;
+    }
+
+    /**
+     * @param slots Inventory slots free for the load
+     * @param bagCapacity Coal bag capacity, 0 without a bag
+     * @param observedPotCoal Coal the melting pot varbit shows
+     * @return The next trip
+     */
+    Trip next(int slots, int bagCapacity, int observedPotCoal) {
+        // The varbit is exact when it reads anything; a 0 may just be a varbit that moved
+        if (observedPotCoal > 0) {
+            expectedPotCoal = observedPotCoal;
+        }
+        int pot = (int) expectedPotCoal;
+        int k = recipe.coalPerBar();
+        if (k == 0) {
+            return new Trip(slots, 0, false);
+        }
+
+        int needed = k * slots;
+        if (mode(slots, bagCapacity) == Mode.SPLIT) {
+            // As much ore as the pot covers; the rest of the inventory and the bag refill it
+            int ore = Math.min(slots, pot / k);
+            int coal = Math.min(slots - ore, room(pot, ore));
+            boolean bag = pot - k * ore < needed && room(pot, ore) - coal >= bagCapacity;
+            return new Trip(ore, coal, bag);
+        }
+
+        // Full ore trip once the pot covers it, else a coal trip to build the pot up.
+        // The bag goes whenever the pot has room: skipping it only brings a coal trip forward
+        if (pot >= needed || room(pot, 0) < slots + bagCapacity) {
+            return new Trip(slots, 0, room(pot, slots) >= bagCapacity);
+        }
+        return new Trip(0, slots, true);
+    }
+
+    /**
+     * Records what actually left for the furnace
+     * @param ore Ore carried
+     * @param coal Coal carried, inventory and bag
+     */
+    void carried(int ore, int coal) {
+        long pot = expectedPotCoal + coal - (long) recipe.coalPerBar() * ore;
+        expectedPotCoal = Math.max(0, Math.min(POT_COAL_CAPACITY, pot));
+    }
+
+    /**
+     * @return Coal the planner believes is in the pot
+     */
+    int expectedPotCoal() {
+        return (int) expectedPotCoal;
+    }
+
+    /**
+     * @param slots Inventory slots free for the load
+     * @param bagCapacity What the bag can hold
+     * @return What to count on the bag carrying: all of it, or only what one emptying
+     *         takes when emptying twice costs more than the extra coal saves
+     */
+    int usableBag(int slots, int bagCapacity) {
+        int single = Math.min(slots, bagCapacity);
+        return bestBarsPerHour(slots, bagCapacity) > bestBarsPerHour(slots, single) ? bagCapacity : single;
+    }
+
+    /**
+     * @return The feeding mode with more bars per hour for this inventory and bag
+     */
+    Mode mode(int slots, int bagCapacity) {
+        return barsPerHour(Mode.SPLIT, slots, bagCapacity) > barsPerHour(Mode.ORE_OR_COAL, slots, bagCapacity)
+            ? Mode.SPLIT : Mode.ORE_OR_COAL;
+    }
+
+    private double bestBarsPerHour(int slots, int bagCapacity) {
+        return barsPerHour(mode(slots, bagCapacity), slots, bagCapacity);
+    }
+
+    /**
+     * Long-run bars per hour of a mode under the trip cost model
+     */
+    double barsPerHour(Mode mode, int slots, int bagCapacity) {
+        int k = recipe.coalPerBar();
+        if (k == 0) {
+            return slots * 3_600_000.0 / (TRIP_MS + COLLECT_MS);
+        }
+        // A bag holding more than the emptied inventory takes is emptied twice
+        long bagMs = bagCapacity > slots ? BAG_MS + EMPTY_AGAIN_MS : BAG_MS;
+        if (mode == Mode.SPLIT) {
+            // Coal carried per trip covers (k + 1) slots-plus-bag per bar
+            double ore = Math.min(slots, (slots + bagCapacity) / (double) (k + 1));
+            double split = ore < slots ? SPLIT_MS : 0;
+            return ore * 3_600_000.0 / (TRIP_MS + bagMs + split + COLLECT_MS);
+        }
+
+        // Coal trips per ore trip, and the share of ore trips that need the bag at all
+        double coalTrips = Math.max(0, k * slots - bagCapacity) / (double) (slots + bagCapacity);
+        double bagShare = coalTrips > 0 ? 1 : Math.min(1, k * slots / (double) bagCapacity);
+        double cycleMs = (1 + coalTrips) * TRIP_MS + (coalTrips + bagShare) * bagMs + COLLECT_MS;
+        return slots * 3_600_000.0 / cycleMs;
+    }
+
+    /**
+     * @return Coal the pot can still take on a trip that also melts the given ore
+     */
+    private int room(int pot, int ore) {
+        return POT_COAL_CAPACITY - pot + recipe.coalPerBar() * ore;
+    }
+}
@@ -0,0 +1,52 @@
+package org.dreambot.blastfurnace.sim;
+
+/*
+ * SimSettings.java
+ *
+ * Tunables for SimulatedBlastFurnace: latencies, player stats and starting bank.
+ *
+ * Latencies are counted in server ticks after the action is sent, which is how the live
+ * game applies them. Defaults approximate a mid-level account with ice gloves and no
+ * smithing cape; change one field at a time to see what a change is worth in bars/hr.
+ */
+public final class SimSettings {
+    // Milliseconds past a multiple of 600 at which ticks fall, so the tick clock has to find it
+    public int tickPhaseMs = 137;
+
+    // Mouse travel before clicking an object the cursor isn't already resting on
+    public int mouseTravelMs = 250;
+
+    // Ticks between arriving next to an object and the interaction landing
+    public int interactTicks = 1;
+
+    // Ticks for bank, inventory and dialogue actions to show up client side
+    public int actionTicks = 1;
+
+    // Bank withdraw and deposit calls block until the items move, like the live API
+    public boolean bankCallsWait = true;
+
+    // Ticks for ore to ride the conveyor into the furnace
+    public int beltTicks = 2;
+
+    // Ticks from ore reaching the furnace to bars in the dispenser
+    public int meltTicks = 1;
+
+    // Chance that an object interaction is sent but never lands, like a misclick
+    public double missChance = 0.02;
+
+    // Smithing cape equipped: the coal bag holds 36 instead of 27
+    public boolean smithingCape = false;
+
+    public int agilityLevel = 70;
+    public int weightKg = 20;
+    public boolean runEnabled = true;
+    public boolean iceGloves = true;
+
+    public int startSmithingXp = 5_000_000;
+    public int bankCoal = 2_000_000;
+    // Of every ore the furnace takes
+    public int bankOre = 1_000_000;
+    public int bankStaminaPotions = 10_000;
+
+    public long seed = 1;
+}
@@ -0,0 +1,900 @@
+package org.dreambot.blastfurnace.sim;
+
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.api.methods.skills.Skill;
+import org.dreambot.core.Clock;
+import org.dreambot.core.TickClock;
+import org.dreambot.core.event.EventBus;
+import org.dreambot.core.event.GameEvent;
+import org.dreambot.core.game.GameApi;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+/*
+ * SimulatedBlastFurnace.java
+ *
+ * In-memory Blast Furnace behind the GameApi interface, running on virtual time.
+ *
+ * Key functionality:
+ * - Server ticks every 600 ms of virtual time; every change the decision code can see
+ *   lands on a tick, as it does live
+ * - Player movement at one tile per tick walking and two running, with OSRS run energy
+ *   drain and regeneration, and stamina potions with their effect varbits
+ * - Bank chest, inventory, coal bag (36 coal with a smithing cape), conveyor belt,
+ *   furnace melting for iron, steel, gold, mithril, adamant and rune (coal per bar by
+ *   ore) and the bar dispenser with its quantity dialogue, plus the furnace varbits
+ * - Object interactions walk the player next to the object first, and a configurable
+ *   share of them never land. Clicking an object the mouse isn't already resting on
+ *   costs the mouse's travel first
+ * - Inventory changes and smithing experience are posted to the event bus on the tick
+ *   they happen, as the client's listeners would
+ *
+ * The world only advances when the driver calls advance() or sleepUntil(), or the
+ * decision code sends the mouse to an object, so a simulated hour costs as much CPU
+ * as the decisions made in it.
+ */
+public final class SimulatedBlastFurnace implements GameApi, Clock {
+    // Item IDs
+    static final int COAL = 453;
+    static final int IRON_ORE = 440;
+    static final int GOLD_ORE = 444;
+    static final int MITHRIL_ORE = 447;
+    static final int ADAMANTITE_ORE = 449;
+    static final int RUNITE_ORE = 451;
+    static final int IRON_BAR = 2351;
+    static final int STEEL_BAR = 2353;
+    static final int GOLD_BAR = 2357;
+    static final int MITHRIL_BAR = 2359;
+    static final int ADAMANTITE_BAR = 2361;
+    static final int RUNITE_BAR = 2363;
+    static final int COAL_BAG = 12019;
+    static final int VIAL = 229;
+
+    // Stamina potion IDs indexed by doses left
+    private static final int[] STAMINA = {VIAL, 12631, 12629, 12627, 12625};
+
+    // Object IDs and the tiles the player stands on to use them
+    static final int CONVEYOR_BELT = 9100;
+    static final int BAR_DISPENSER = 9092;
+    static final int BANK_CHEST = 26707;
+    private static final Tile CONVEYOR_TILE = new Tile(1942, 4967, 0);
+    private static final Tile DISPENSER_TILE = new Tile(1940, 4964, 0);
+    private static final Tile BANK_TILE = new Tile(1948, 4957, 0);
+
+    // Tiles from the player a minimap click can reach
+    private static final int MINIMAP_RADIUS = 17;
+
+    private static final int SLOTS = 28;
+    private static final int EMPTY = -1;
+
+    // Run energy is kept in hundredths of a percent, as the game does
+    private static final int MAX_ENERGY = 10_000;
+    private static final int STAMINA_ENERGY = 2_000;
+    private static final int STAMINA_TICKS = 200;
+    private static final int SMELT_ANIMATION = 899;
+
+    // Game message for a Take on an empty dispenser
+    static final String NO_BARS_MESSAGE = "There are no bars in the dispenser.";
+
+    // Coal bag capacity, and with a smithing cape
+    private static final int BAG_CAPACITY = 27;
+    private static final int CAPE_BAG_CAPACITY = 36;
+
+    // Iron ore with no coal in the pot comes out as iron bars: XP in tenths and varbit
+    private static final int IRON_XP = 125;
+    private static final int IRON_BAR_VARBIT = 942;
+    private static final int COAL_VARBIT = 949;
+    private static final int DISPENSER_VARBIT = 936;
+
+    // Stamina effect active, and its time left in units of ten ticks
+    private static final int STAMINA_ACTIVE_VARBIT = 25;
+    private static final int STAMINA_VARBIT = 24;
+
+    /**
+     * An ore the furnace smelts, with its bar, coal per bar, XP in tenths and the melting
+     * pot and dispenser varbits
+     */
+    private static final class Ore {
+        final int id;
+        final int bar;
+        final int coal;
+        final int xp;
+        final int varbit;
+        final int barVarbit;
+
+        Ore(int id, int bar, int coal, int xp, int varbit, int barVarbit) {
+            this.id = id;
+            this.bar = bar;
+            this.coal = coal;
+            this.xp = xp;
+            this.varbit = varbit;
+            this.barVarbit = barVarbit;
+        }
+    }
+
+    // Iron first: its index is where the iron-bar fallback applies
+    private static final Ore[] ORES = {
+        new Ore(IRON_ORE, STEEL_BAR, 1, 175, 951, 943),
+        new Ore(GOLD_ORE, GOLD_BAR, 0, 225, 955, 947),
+        new Ore(MITHRIL_ORE, MITHRIL_BAR, 2, 300, 952, 944),
+        new Ore(ADAMANTITE_ORE, ADAMANTITE_BAR, 3, 375, 953, 945),
+        new Ore(RUNITE_ORE, RUNITE_BAR, 4, 500, 954, 946)
+    };
+    private static final int IRON = 0;
+
+    /**
+     * Ore riding the conveyor, reaching the furnace on arrivalTick
+     */
+    private static final class BeltLoad {
+        final long arrivalTick;
+        final int coal;
+        final int[] ore;
+
+        BeltLoad(long arrivalTick, int coal, int[] ore) {
+            this.arrivalTick = arrivalTick;
+            this.coal = coal;
+            this.ore = ore;
+        }
+    }
+
+    /**
+     * Bars melting, landing in the dispenser on dueTick
+     */
+    private static final class Batch {
+        final long dueTick;
+        final int ironBars;
+        final int[] bars;
+
+        Batch(long dueTick, int ironBars, int[] bars) {
+            this.dueTick = dueTick;
+            this.ironBars = ironBars;
+            this.bars = bars;
+        }
+    }
+
+    /**
+     * A bank, inventory or dialogue action waiting for its tick
+     */
+    private static final class Pending {
+        final long dueTick;
+        final Runnable effect;
+
+        Pending(long dueTick, Runnable effect) {
+            this.dueTick = dueTick;
+            this.effect = effect;
+        }
+    }
+
+    private final SimSettings settings;
+    private final Random random;
+
+    private long now;
+    private long tick;
+
+    // Player
+    private int x = BANK_TILE.getX();
+    private int y = BANK_TILE.getY() + 1;
+    private int destX;
+    private int destY;
+    private boolean moving;
+    private int energy = MAX_ENERGY;
+    private int staminaTicks;
+    private int animation = -1;
+
+    // Containers
+    private final int[] inventory = new int[SLOTS];
+    private final Map<Integer, Integer> bank = new HashMap<>();
+    private boolean bankOpen;
+    private int coalBag;
+    private boolean dialogue;
+
+    // Object interaction in progress
+    private int targetObject = EMPTY;
+    private String targetAction;
+    private long actAtTick = -1;
+
+    // Object the mouse rests on, EMPTY once it has gone to the inventory, bank or minimap
+    private int cursor = EMPTY;
+
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+    private final ArrayDeque<BeltLoad> belt = new ArrayDeque<>();
+
+    // Furnace and dispenser
+    // Pot and dispenser counts indexed like ORES; iron bars are kept apart
+    private int furnaceCoal;
+    private final int[] furnaceOre = new int[ORES.length];
+    private final ArrayDeque<Batch> melting = new ArrayDeque<>();
+    private int dispenserIron;
+    private final int[] dispenser = new int[ORES.length];
+
+    // Posted on the driver's thread, so nothing ever blocks on it
+    private final EventBus events = new EventBus(false);
+
+    // Results
+    private long xpTenths;
+    private int barsBanked;
+    private int staminaDoses;
+    private int walkedTicks;
+    private int webWalks;
+    private int minimapClicks;
+    private int missedInteractions;
+
+    public SimulatedBlastFurnace(SimSettings settings) {
+        this.settings = settings;
+        this.random = new Random(settings.seed);
+        this.now = settings.tickPhaseMs;
+        Arrays.fill(inventory, EMPTY);
+        bank.put(COAL, settings.bankCoal);
+        for (Ore ore : ORES) {
+            bank.put(ore.id, settings.bankOre);
+        }
+        bank.put(STAMINA[4], settings.bankStaminaPotions);
+        bank.put(COAL_BAG, 1);
+    }
+
+    @Override
+    public long now() {
+        return now;
+    }
+
+    /**
+     * Moves virtual time forward, processing every tick boundary on the way
+     * @param ms Milliseconds to advance, at least 1
+     */
+    public void advance(long ms) {
+        long until = now + Math.max(1, ms);
+        long next = nextTickAt();
+        while (next <= until) {
+            now = next;
+            processTick();
+            next += TickClock.TICK_MS;
+        }
+        now = until;
+    }
+
+    private long nextTickAt() {
+        long phase = settings.tickPhaseMs;
+        return phase + (Math.floorDiv(now - phase, (long) TickClock.TICK_MS) + 1) * TickClock.TICK_MS;
+    }
+
+    private void processTick() {
+        tick++;
+        animation = -1;
+
+        while (!pending.isEmpty() && pending.peekFirst().dueTick <= tick) {
+            pending.pollFirst().effect.run();
+        }
+
+        move();
+        interactIfArrived();
+        runFurnace();
+
+        if (staminaTicks > 0) {
+            staminaTicks--;
+        }
+    }
+
+    private void move() {
+        if (!moving) {
+            regenerate();
+            return;
+        }
+        boolean running = settings.runEnabled && energy > 0;
+        int steps = running ? 2 : 1;
+        for (int i = 0; i < steps && (x != destX || y != destY); i++) {
+            x += Integer.signum(destX - x);
+            y += Integer.signum(destY - y);
+        }
+        if (running) {
+            int drain = 67 + 67 * Math.min(Math.max(settings.weightKg, 0), 64) / 64;
+            if (staminaTicks > 0) {
+                drain = drain * 3 / 10;
+            }
+            energy = Math.max(0, energy - drain);
+        } else {
+            walkedTicks++;
+            regenerate();
+        }
+        if (x == destX && y == destY) {
+            moving = false;
+        }
+    }
+
+    private void regenerate() {
+        energy = Math.min(MAX_ENERGY, energy + 8 + settings.agilityLevel / 6);
+    }
+
+    private void interactIfArrived() {
+        if (targetObject == EMPTY || moving) {
+            return;
+        }
+        if (actAtTick < 0) {
+            actAtTick = tick + settings.interactTicks - 1;
+        }
+        if (tick < actAtTick) {
+            return;
+        }
+        int object = targetObject;
+        targetObject = EMPTY;
+        actAtTick = -1;
+
+        if (object == BANK_CHEST) {
+            bankOpen = true;
+        } else if (object == CONVEYOR_BELT && "Put-ore-on".equals(targetAction)) {
+            putOreOnBelt();
+        } else if (object == BAR_DISPENSER && "Take".equals(targetAction)) {
+            if (dispenserBars() > 0) {
+                dialogue = true;
+            } else {
+                events.post(GameEvent.chat(NO_BARS_MESSAGE));
+            }
+        }
+    }
+
+    private void putOreOnBelt() {
+        int coal = removeAll(COAL);
+        int[] ore = new int[ORES.length];
+        int total = coal;
+        for (int i = 0; i < ORES.length; i++) {
+            ore[i] = removeAll(ORES[i].id);
+            total += ore[i];
+        }
+        if (total > 0) {
+            animation = SMELT_ANIMATION;
+            belt.addLast(new BeltLoad(tick + settings.beltTicks, coal, ore));
+        }
+    }
+
+    private void runFurnace() {
+        while (!belt.isEmpty() && belt.peekFirst().arrivalTick <= tick) {
+            BeltLoad load = belt.pollFirst();
+            furnaceCoal += load.coal;
+            for (int i = 0; i < ORES.length; i++) {
+                furnaceOre[i] += load.ore[i];
+            }
+        }
+
+        // Ore waits in the furnace until there is coal for it; iron without coal comes out
+        // as iron bars, which is what the steel script sees on a cold start
+        int[] bars = new int[ORES.length];
+        int made = 0;
+        long gained = 0;
+        for (int i = 0; i < ORES.length; i++) {
+            Ore ore = ORES[i];
+            bars[i] = ore.coal == 0 ? furnaceOre[i] : Math.min(furnaceOre[i], furnaceCoal / ore.coal);
+            furnaceOre[i] -= bars[i];
+            furnaceCoal -= bars[i] * ore.coal;
+            made += bars[i];
+            gained += (long) bars[i] * ore.xp;
+        }
+        int ironBars = furnaceOre[IRON];
+        furnaceOre[IRON] = 0;
+        made += ironBars;
+        gained += (long) ironBars * IRON_XP;
+        if (made > 0) {
+            melting.addLast(new Batch(tick + settings.meltTicks, ironBars, bars));
+            xpTenths += gained;
+        }
+
+        while (!melting.isEmpty() && melting.peekFirst().dueTick <= tick) {
+            Batch batch = melting.pollFirst();
+            long batchXp = (long) batch.ironBars * IRON_XP;
+            dispenserIron += batch.ironBars;
+            for (int i = 0; i < ORES.length; i++) {
+                dispenser[i] += batch.bars[i];
+                batchXp += (long) batch.bars[i] * ORES[i].xp;
+            }
+            // The client sees the experience drop when the bars land in the dispenser
+            events.post(GameEvent.experience(Skill.SMITHING, (int) (batchXp / 10)));
+        }
+    }
+
+    private int dispenserBars() {
+        int bars = dispenserIron;
+        for (int count : dispenser) {
+            bars += count;
+        }
+        return bars;
+    }
+
+    private void later(Runnable effect) {
+        pending.addLast(new Pending(tick + settings.actionTicks, effect));
+    }
+
+    /**
+     * Bank calls return once the container has changed, as the live API's do
+     */
+    private void bankCall(Runnable effect) {
+        later(effect);
+        while (settings.bankCallsWait && !pending.isEmpty()) {
+            advance(nextTickAt() + 1 - now);
+        }
+    }
+
+    // Driver-facing state
+
+    public int playerX() {
+        return x;
+    }
+
+    public int playerY() {
+        return y;
+    }
+
+    @Override
+    public int playerAnimation() {
+        return animation;
+    }
+
+    @Override
+    public boolean isMoving() {
+        return moving;
+    }
+
+    @Override
+    public Tile playerTile() {
+        return new Tile(x, y, 0);
+    }
+
+    // Nothing at the furnace attacks or poisons the player
+
+    @Override
+    public int healthPercent() {
+        return 100;
+    }
+
+    @Override
+    public boolean isPoisoned() {
+        return false;
+    }
+
+    /**
+     * @return Bars deposited into the bank so far
+     */
+    public int barsBanked() {
+        return barsBanked;
+    }
+
+    public int staminaDoses() {
+        return staminaDoses;
+    }
+
+    /**
+     * @return Ticks spent walking somewhere for want of run energy
+     */
+    public int walkedTicks() {
+        return walkedTicks;
+    }
+
+    /**
+     * @return Walks that went through the web walker's pathfinding
+     */
+    public int webWalks() {
+        return webWalks;
+    }
+
+    public int minimapClicks() {
+        return minimapClicks;
+    }
+
+    public int missedInteractions() {
+        return missedInteractions;
+    }
+
+    public long xpGained() {
+        return xpTenths / 10;
+    }
+
+    // GameApi: inventory
+
+    @Override
+    public int readInventory(int[] ids, int[] amounts) {
+        int used = 0;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (inventory[slot] != EMPTY) {
+                ids[used] = inventory[slot];
+                amounts[used] = 1;
+                used++;
+            }
+        }
+        return used;
+    }
+
+    @Override
+    public boolean interactInventory(int id, String action) {
+        cursor = EMPTY;
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return false;
+        }
+        if (id == COAL_BAG && "Fill".equals(action)) {
+            later(this::fillCoalBag);
+        } else if (id == COAL_BAG && "Empty".equals(action)) {
+            later(this::emptyCoalBag);
+        } else if ("Drink".equals(action) && doses(id) > 0) {
+            later(() -> drink(id));
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private void fillCoalBag() {
+        int room = (settings.smithingCape ? CAPE_BAG_CAPACITY : BAG_CAPACITY) - coalBag;
+        if (bankOpen) {
+            int taken = Math.min(room, bank.getOrDefault(COAL, 0));
+            bank.merge(COAL, -taken, Integer::sum);
+            coalBag += taken;
+            return;
+        }
+        while (room > 0 && remove(COAL)) {
+            coalBag++;
+            room--;
+        }
+    }
+
+    private void emptyCoalBag() {
+        while (coalBag > 0 && add(COAL)) {
+            coalBag--;
+        }
+    }
+
+    private void drink(int id) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return;
+        }
+        inventory[slot] = STAMINA[doses(id) - 1];
+        events.post(GameEvent.item(id, -1));
+        events.post(GameEvent.item(inventory[slot], 1));
+        energy = Math.min(MAX_ENERGY, energy + STAMINA_ENERGY);
+        staminaTicks = STAMINA_TICKS;
+        staminaDoses++;
+    }
+
+    // GameApi: bank
+
+    @Override
+    public boolean isBankOpen() {
+        return bankOpen;
+    }
+
+    @Override
+    public boolean openBank() {
+        return interactObject(BANK_CHEST, "Use");
+    }
+
+    @Override
+    public boolean closeBank() {
+        bankOpen = false;
+        return true;
+    }
+
+    @Override
+    public int bankCount(int id) {
+        return bank.getOrDefault(id, 0);
+    }
+
+    @Override
+    public int readBank(int[] ids, int[] amounts) {
+        int used = 0;
+        for (Map.Entry<Integer, Integer> entry : bank.entrySet()) {
+            if (used == ids.length) {
+                break;
+            }
+            if (entry.getValue() > 0) {
+                ids[used] = entry.getKey();
+                amounts[used] = entry.getValue();
+                used++;
+            }
+        }
+        return used;
+    }
+
+    @Override
+    public boolean depositAll(int id) {
+        cursor = EMPTY;
+        if (!bankOpen) {
+            return false;
+        }
+        bankCall(() -> {
+            while (remove(id)) {
+                deposit(id);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean depositAllExcept(int id) {
+        cursor = EMPTY;
+        if (!bankOpen) {
+            return false;
+        }
+        bankCall(() -> {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                if (inventory[slot] != EMPTY && inventory[slot] != id) {
+                    deposit(inventory[slot]);
+                    events.post(GameEvent.item(inventory[slot], -1));
+                    inventory[slot] = EMPTY;
+                }
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean withdraw(int id, int amount) {
+        cursor = EMPTY;
+        if (!bankOpen || bankCount(id) == 0) {
+            return false;
+        }
+        bankCall(() -> {
+            for (int i = 0; i < amount && bankCount(id) > 0 && add(id); i++) {
+                bank.merge(id, -1, Integer::sum);
+            }
+        });
+        return true;
+    }
+
+    private void deposit(int id) {
+        if (isBar(id)) {
+            barsBanked++;
+        }
+        bank.merge(id, 1, Integer::sum);
+    }
+
+    // GameApi: objects and movement
+
+    @Override
+    public boolean objectExists(int id) {
+        return tileOf(id) != null;
+    }
+
+    @Override
+    public boolean canReachObject(int id) {
+        // Everything in the furnace room is reachable from everywhere else in it
+        return tileOf(id) != null;
+    }
+
+    @Override
+    public boolean interactObject(int id, String action) {
+        Tile tile = tileOf(id);
+        if (tile == null) {
+            return false;
+        }
+        // The click goes out once the mouse gets there
+        if (cursor != id) {
+            advance(settings.mouseTravelMs);
+            cursor = id;
+        }
+        walkTo(tile.getX(), tile.getY());
+        if (random.nextDouble() < settings.missChance) {
+            missedInteractions++;
+            return true;
+        }
+        targetObject = id;
+        targetAction = action;
+        return true;
+    }
+
+    @Override
+    public boolean hoverObject(int id, String action) {
+        if (tileOf(id) == null) {
+            return false;
+        }
+        if (cursor != id) {
+            advance(settings.mouseTravelMs);
+            cursor = id;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean walk(Tile tile) {
+        if (tile == null) {
+            return false;
+        }
+        cursor = EMPTY;
+        webWalks++;
+        walkTo(tile.getX(), tile.getY());
+        return true;
+    }
+
+    @Override
+    public boolean clickMinimap(Tile tile) {
+        if (tile == null || Math.max(Math.abs(tile.getX() - x), Math.abs(tile.getY() - y)) > MINIMAP_RADIUS) {
+            return false;
+        }
+        minimapClicks++;
+        cursor = EMPTY;
+        walkTo(tile.getX(), tile.getY());
+        return true;
+    }
+
+    private void walkTo(int toX, int toY) {
+        destX = toX;
+        destY = toY;
+        moving = x != toX || y != toY;
+        targetObject = EMPTY;
+        actAtTick = -1;
+        bankOpen = false;
+        dialogue = false;
+    }
+
+    @Override
+    public boolean shouldWalk() {
+        return !moving || Math.max(Math.abs(destX - x), Math.abs(destY - y)) < 5;
+    }
+
+    @Override
+    public int runEnergy() {
+        return energy / 100;
+    }
+
+    private static Tile tileOf(int id) {
+        switch (id) {
+            case CONVEYOR_BELT:
+                return CONVEYOR_TILE;
+            case BAR_DISPENSER:
+                return DISPENSER_TILE;
+            case BANK_CHEST:
+                return BANK_TILE;
+            default:
+                return null;
+        }
+    }
+
+    // GameApi: dialogue, skills, equipment, waiting
+
+    @Override
+    public boolean inDialogue() {
+        return dialogue;
+    }
+
+    @Override
+    public void type(String text) {
+        if (!dialogue) {
+            return;
+        }
+        later(() -> {
+            dialogue = false;
+            for (int i = 0; i < ORES.length; i++) {
+                dispenser[i] = takeBars(ORES[i].bar, dispenser[i]);
+            }
+            dispenserIron = takeBars(IRON_BAR, dispenserIron);
+        });
+    }
+
+    private int takeBars(int id, int available) {
+        while (available > 0 && add(id)) {
+            available--;
+        }
+        return available;
+    }
+
+    @Override
+    public int experience(Skill skill) {
+        return skill == Skill.SMITHING ? settings.startSmithingXp + (int) (xpTenths / 10) : 0;
+    }
+
+    /**
+     * The furnace varbits the decision code reads; everything else reads 0
+     */
+    @Override
+    public int varbit(int id) {
+        switch (id) {
+            case DISPENSER_VARBIT:
+                return dispenserBars() > 0 ? 2 : melting.isEmpty() ? 0 : 1;
+            case IRON_BAR_VARBIT:
+                return dispenserIron;
+            case COAL_VARBIT:
+                return furnaceCoal;
+            case STAMINA_ACTIVE_VARBIT:
+                return staminaTicks > 0 ? 1 : 0;
+            case STAMINA_VARBIT:
+                return (staminaTicks + 9) / 10;
+            default:
+                for (int i = 0; i < ORES.length; i++) {
+                    if (ORES[i].varbit == id) {
+                        return furnaceOre[i];
+                    }
+                    if (ORES[i].barVarbit == id) {
+                        return dispenser[i];
+                    }
+                }
+                return 0;
+        }
+    }
+
+    @Override
+    public boolean isEquipped(String name) {
+        return (settings.iceGloves && "Ice gloves".equals(name))
+            || (settings.smithingCape && "Smithing cape".equals(name));
+    }
+
+    /**
+     * Advances virtual time until the condition holds, re-checking just after each tick;
+     * for harnesses driving the simulator directly, the scripts never block
+     */
+    public boolean sleepUntil(BooleanSupplier condition, long timeoutMs) {
+        long deadline = now + timeoutMs;
+        while (!condition.getAsBoolean()) {
+            if (now >= deadline) {
+                return false;
+            }
+            advance(Math.min(deadline, nextTickAt() + 1) - now);
+        }
+        return true;
+    }
+
+    @Override
+    public EventBus events() {
+        return events;
+    }
+
+    // Inventory helpers
+
+    private int slotOf(int id) {
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (inventory[slot] == id) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private boolean add(int id) {
+        int slot = slotOf(EMPTY);
+        if (slot < 0) {
+            return false;
+        }
+        inventory[slot] = id;
+        events.post(GameEvent.item(id, 1));
+        return true;
+    }
+
+    private boolean remove(int id) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return false;
+        }
+        inventory[slot] = EMPTY;
+        events.post(GameEvent.item(id, -1));
+        return true;
+    }
+
+    private int removeAll(int id) {
+        int removed = 0;
+        while (remove(id)) {
+            removed++;
+        }
+        return removed;
+    }
+
+    private static boolean isBar(int id) {
+        if (id == IRON_BAR) {
+            return true;
+        }
+        for (Ore ore : ORES) {
+            if (ore.bar == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int doses(int id) {
+        for (int doses = 1; doses < STAMINA.length; doses++) {
+            if (STAMINA[doses] == id) {
+                return doses;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,149 @@
+package org.dreambot.collector;
+
+import org.dreambot.api.methods.fairyring.FairyRings;
+import org.dreambot.api.methods.interactive.GameObjects;
+import org.dreambot.api.methods.interactive.Players;
+import org.dreambot.api.methods.map.Area;
+import org.dreambot.api.wrappers.interactive.GameObject;
+import org.dreambot.core.TickScheduler;
+import org.dreambot.core.game.GameApi;
+import org.dreambot.core.log.ScriptLog;
+
+/*
+ * FairyRingTravel.java
+ *
+ * Fairy ring teleports that take the fewest clicks the ring allows, one step per pass.
+ *
+ * Key functionality:
+ * - The dials are read from their varbits, so the ring's current code is always known
+ *   without opening the interface
+ * - When the code asked for is the ring's last destination, the "Last-destination"
+ *   action teleports in one click
+ * - Otherwise only the dials that are wrong get turned, each waited on until its
+ *   varbit shows the letter, before travelling
+ * - Arrival is the player standing in the destination area, not the animation ending
+ */
+final class FairyRingTravel {
+    // One varbit per dial, holding its position 0-3, and the letter each position shows
+    private static final int[] VARBIT_DIALS = {3985, 3986, 3987};
+    private static final String[] LETTERS = {"ADCB", "ILKJ", "PSRQ"};
+
+    private static final String LAST_DESTINATION = "Last-destination";
+
+    private static final long INTERFACE_TIMEOUT = 3000;
+    private static final long DIAL_TIMEOUT = 1800;
+    private static final long ARRIVAL_TIMEOUT = 6000;
+
+    private final GameApi api;
+    private final TickScheduler scheduler;
+    private final ScriptLog logger;
+
+    FairyRingTravel(GameApi api, TickScheduler scheduler, ScriptLog logger) {
+        this.api = api;
+        this.scheduler = scheduler;
+        this.logger = logger;
+    }
+
+    /**
+     * Takes the next step of a teleport
+     * @param code Fairy ring code, e.g. "CKR"
+     * @param destination Area the code lands in
+     * @return Sleep duration in milliseconds
+     */
+    int travel(String code, Area destination) {
+        boolean configuring = FairyRings.travelInterfaceOpen();
+        if (!configuring) {
+            GameObject ring = GameObjects.closest("Fairy ring");
+            if (ring == null || !ring.exists()) {
+                logger.warn("No fairy ring found!");
+                return scheduler.nextTick();
+            }
+
+            String last = lastDestination(ring);
+            if (last != null && code.equals(lastCode(last))) {
+                logger.debug("Using last destination: {}", code);
+                if (ring.interact(last)) {
+                    return arrival(destination);
+                }
+                return scheduler.nextTick();
+            }
+
+            logger.debug("Opening fairy ring interface");
+            if (ring.interact("Configure")) {
+                return scheduler.until(FairyRings::travelInterfaceOpen, INTERFACE_TIMEOUT);
+            }
+            return scheduler.nextTick();
+        }
+
+        // One dial per pass, and only those that don't show their letter yet
+        for (int dial = 0; dial < VARBIT_DIALS.length; dial++) {
+            String letter = String.valueOf(code.charAt(dial));
+            if (!letter.equals(dialed(dial))) {
+                logger.debug("Turning dial {} to {}", dial, letter);
+                if (FairyRings.enterCode(dial, letter)) {
+                    int turned = dial;
+                    return scheduler.until(() -> letter.equals(dialed(turned)), DIAL_TIMEOUT);
+                }
+                return scheduler.nextTick();
+            }
+        }
+
+        if (FairyRings.travel(code.substring(0, 1), code.substring(1, 2), code.substring(2, 3))) {
+            logger.info("Travel initiated");
+            return arrival(destination);
+        }
+        return scheduler.nextTick();
+    }
+
+    /**
+     * @return The code the dials show now
+     */
+    String dialed() {
+        StringBuilder code = new StringBuilder(VARBIT_DIALS.length);
+        for (int dial = 0; dial < VARBIT_DIALS.length; dial++) {
+            code.append(dialed(dial));
+        }
+        return code.toString();
+    }
+
+    /**
+     * @return Letter one dial shows now
+     */
+    private String dialed(int dial) {
+        int position = api.varbit(VARBIT_DIALS[dial]) & 3;
+        return String.valueOf(LETTERS[dial].charAt(position));
+    }
+
+    /**
+     * @return Code the action would teleport to: the one it names, or else the dials,
+     *         which stay where the last teleport left them
+     */
+    private String lastCode(String action) {
+        int open = action.indexOf('(');
+        int close = action.indexOf(')', open + 1);
+        if (open >= 0 && close > open) {
+            return action.substring(open + 1, close).replace(" ", "").toUpperCase();
+        }
+        return dialed();
+    }
+
+    /**
+     * @return The ring's last-destination action, null if it has none yet
+     */
+    private static String lastDestination(GameObject ring) {
+        String[] actions = ring.getActions();
+        if (actions == null) {
+            return null;
+        }
+        for (String action : actions) {
+            if (action != null && action.startsWith(LAST_DESTINATION)) {
+                return action;
+            }
+        }
+        return null;
+    }
+
+    private int arrival(Area destination) {
+        return scheduler.until(() -> destination.contains(Players.getLocal()), ARRIVAL_TIMEOUT);
+    }
+}
@@ -0,0 +1,127 @@
+package org.dreambot.collector;
+
+import org.dreambot.core.InventorySnapshot;
+
+/*
+ * HerbSack.java
+ *
+ * What the herb sack holds, kept from the script's own fills and empties, so a trip
+ * carries a sackful of snakeweed on top of a full inventory.
+ *
+ * Key functionality:
+ * - Works with the sack closed or open
+ * - A Fill is timed from the herb count it left; what it moved out of the inventory is
+ *   added, and a Fill that moved nothing means the sack is full
+ * - herbsPerTrip() is what one round trip through the fairy rings brings home
+ * - The bank "Empty" is timed the same way, from the snakeweed in the bank and inventory
+ *   together; the count only drops once that total has risen
+ *
+ * The sack can't be read without a Check, so the count starts at 0 and the first Fill
+ * that moves nothing corrects it. An open sack also takes herbs in on its own, so with
+ * one the count is a lower bound; the bank empties whatever sack is held either way.
+ */
+final class HerbSack {
+    static final int HERB_SACK = 13226;
+    static final int OPEN_HERB_SACK = 24478;
+
+    // Thirty of each grimy herb; only snakeweed goes in here
+    static final int CAPACITY = 30;
+
+    private int stored;
+    private int fillFrom = -1;      // Herbs in the inventory when a Fill went out, -1 none
+    private int emptyFrom = -1;     // Herbs in the bank and inventory when an Empty went out, -1 none
+    private boolean emptyMissed;    // The last Empty showed nothing
+
+    /**
+     * @return ID of the sack held, -1 if none
+     */
+    int heldId(InventorySnapshot inventory) {
+        if (inventory.contains(HERB_SACK)) {
+            return HERB_SACK;
+        }
+        return inventory.contains(OPEN_HERB_SACK) ? OPEN_HERB_SACK : -1;
+    }
+
+    /**
+     * @return true if a sack is held and has room for another herb
+     */
+    boolean hasRoom(InventorySnapshot inventory) {
+        return heldId(inventory) != -1 && stored < CAPACITY;
+    }
+
+    /**
+     * @return Herbs the script put in since it last emptied the sack
+     */
+    int stored() {
+        return stored;
+    }
+
+    /**
+     * @param herbs Herbs in the inventory as the Fill goes out
+     */
+    void fillSent(int herbs) {
+        fillFrom = herbs;
+    }
+
+    /**
+     * @return true between fillSent() and fillLanded()
+     */
+    boolean isFilling() {
+        return fillFrom >= 0;
+    }
+
+    /**
+     * Ends a Fill once its wait is over
+     * @param herbs Herbs in the inventory now
+     */
+    void fillLanded(int herbs) {
+        int moved = fillFrom - herbs;
+        stored = moved > 0 ? Math.min(CAPACITY, stored + moved) : CAPACITY;
+        fillFrom = -1;
+    }
+
+    /**
+     * @param herbs Herbs in the bank and inventory together as the Empty goes out
+     */
+    void emptySent(int herbs) {
+        emptyFrom = herbs;
+    }
+
+    /**
+     * @return true between emptySent() and emptyLanded()
+     */
+    boolean isEmptying() {
+        return emptyFrom >= 0;
+    }
+
+    /**
+     * @return Herbs in the bank and inventory as the pending Empty went out, -1 if none is
+     */
+    int emptyFrom() {
+        return emptyFrom;
+    }
+
+    /**
+     * Ends an Empty once its wait is over. Two in a row that show nothing mean the sack
+     * was empty already, e.g. emptied by hand.
+     * @param herbs Herbs in the bank and inventory together now
+     * @return true if the sack now counts as empty
+     */
+    boolean emptyLanded(int herbs) {
+        boolean landed = herbs > emptyFrom || emptyMissed;
+        emptyMissed = !landed;
+        emptyFrom = -1;
+        if (landed) {
+            stored = 0;
+        }
+        return landed;
+    }
+
+    /**
+     * @param herbSlots Inventory slots free for herbs at the vines
+     * @return Herbs one trip holds with the sack, if held, filled on top
+     */
+    int herbsPerTrip(InventorySnapshot inventory, int herbSlots) {
+        return herbSlots + (heldId(inventory) != -1 ? CAPACITY : 0);
+    }
+}
@@ -4,23 +4,46 @@ import org.dreambot.api.methods.combat.Combat;
 import org.dreambot.api.methods.container.impl.Inventory;
 import org.dreambot.api.methods.container.impl.bank.Bank;
 import org.dreambot.api.methods.dialogues.Dialogues;
-import org.dreambot.api.methods.fairyring.FairyRings;
 import org.dreambot.api.methods.input.Camera;
 import org.dreambot.api.methods.interactive.GameObjects;
-import org.dreambot.api.methods.interactive.NPCs;
 import org.dreambot.api.methods.interactive.Players;
 import org.dreambot.api.methods.map.Area;
 import org.dreambot.api.methods.map.Tile;
+import org.dreambot.api.methods.skills.SkillEvent;
 import org.dreambot.api.methods.walking.impl.Walking;
+import org.dreambot.api.methods.world.World;
+import org.dreambot.api.methods.world.Worlds;
+import org.dreambot.api.methods.worldhopper.WorldHopper;
 import org.dreambot.api.script.AbstractScript;
 import org.dreambot.api.script.Category;
 import org.dreambot.api.script.ScriptManifest;
+import org.dreambot.api.script.listener.ChatListener;
+import org.dreambot.api.script.listener.ExperienceListener;
+import org.dreambot.api.script.listener.ItemContainerListener;
 import org.dreambot.api.script.listener.PaintListener;
-import org.dreambot.api.utilities.Sleep;
 import org.dreambot.api.wrappers.interactive.GameObject;
+import org.dreambot.api.wrappers.interactive.Player;
+import org.dreambot.api.wrappers.items.Item;
+import org.dreambot.api.wrappers.widgets.message.Message;
+import org.dreambot.core.InventorySnapshot;
+import org.dreambot.core.TickClock;
+import org.dreambot.core.TickScheduler;
+import org.dreambot.core.WorldSnapshot;
+import org.dreambot.core.event.ClientEvents;
+import org.dreambot.core.event.EventFilter;
+import org.dreambot.core.game.LiveGameApi;
+import org.dreambot.core.log.LogLevel;
+import org.dreambot.core.log.ScriptLog;
+import org.dreambot.core.metrics.RateEstimator;
+import org.dreambot.core.metrics.StateTimings;
+import org.dreambot.core.metrics.TimingsDump;
+import org.dreambot.core.node.Node;
+import org.dreambot.core.node.NodeEngine;
+import org.dreambot.core.paint.StatsPanel;
 
-import java.awt.Color;
 import java.awt.Graphics;
+import java.io.File;
+import java.util.List;
 
 /**
  * SnakeweedCollector.java
@@ -29,10 +52,15 @@ import java.awt.Graphics;
  * - Handles fairy ring transportation between GE and Karamja
  * - Manages vine detection and collection
  * - Controls banking operations
+ * - Fills a herb sack on a full inventory, so each fairy ring round trip brings
+ *   home a sackful more
+ * - Hops worlds when other players leave the vines empty, to the world with the best
+ *   herbs per minute remembered across runs
  * - Tracks collection statistics
  * 
  * Implementation notes:
- * 1. State-based design ensures clear progression
+ * 1. Node-based design: each step validates against the per-tick world snapshot,
+ *    so the script picks up from wherever the player stands
  * 2. Proper sleep conditions prevent race conditions
  * 3. Area checks confirm correct positioning
  * 4. Interaction cooldowns prevent spam clicking
@@ -44,11 +72,12 @@ import java.awt.Graphics;
     version = 1.0,
     category = Category.MONEYMAKING
 )
-public class SnakeweedCollector extends AbstractScript implements PaintListener {
+public class SnakeweedCollector extends AbstractScript
+        implements PaintListener, ItemContainerListener, ChatListener, ExperienceListener {
     // Game object and item identifiers
-    private static final int VINE_ID = 21941;          // Marshy jungle vine ID
     private static final int GRIMY_SNAKEWEED = 1525;   // Collected herb ID
     private static final int PICKING_ANIMATION = 2094; // Picking animation ID
+    private static final EventFilter HERB_GAINED = EventFilter.itemGained(GRIMY_SNAKEWEED);
     
     // Critical: Area boundaries must fully contain relevant objects
     private static final Area VINE_AREA = new Area(2757, 3014, 2776, 3044);
@@ -56,28 +85,87 @@ public class SnakeweedCollector extends AbstractScript implements PaintListener
     private static final Area CKR_FAIRY_RING_AREA = new Area(2798, 3000, 2804, 3006);
     private static final Area BANK_AREA = new Area(3164, 3485, 3167, 3489);
 
-    // State and statistics tracking
-    private State currentState = State.WALK_TO_GE_RING;
+    // Everything west of the GE: the vines, the CKR ring and the walk between them
+    private static final Area KARAMJA_AREA = new Area(2700, 2900, 2900, 3100);
+
+    // Statistics tracking
     private int herbsCollected = 0;
     private long startTime;
     private long lastInteractionTime = 0;
     private static final int INTERACTION_COOLDOWN = 1200; // Minimum ms between interactions
     private int previousInventoryCount = 0;
 
-    // Add these constants near the top with other constants
+    // Vines indexed from one scan, and the one a search is out on (-1 none)
+    private final VineRegistry vines = new VineRegistry();
+    private int searchedVine = -1;
+
+    // Filled at the vines on a full inventory, emptied into the bank with the rest
+    private final HerbSack sack = new HerbSack();
+
+    // Herbs per hour over recent windows rather than the whole run
+    private final RateEstimator herbRate = new RateEstimator(RateEstimator.FIVE_MINUTES);
+
+    // Buffered, level-gated logging; formatting and I/O happen on a background thread
+    private final ScriptLog logger = new ScriptLog("SnakeweedCollector", LogLevel.INFO);
+
+    // Overlay text, rebuilt on the script thread and blitted by onPaint
+    private final StatsPanel panel = new StatsPanel(5, 5, 250, 10);
+    private State paintedState;
+
+    // Tick alignment for every delay returned from onLoop
+    private final TickClock tickClock = new TickClock();
+    private final LiveGameApi api = new LiveGameApi(tickClock);
+    private final TickScheduler scheduler = new TickScheduler(tickClock, api.events());
+
+    // Time spent per state and per bank-to-bank trip, dumped every five minutes and on exit
+    private final StateTimings<State> timings = new StateTimings<>(State.class, State.BANKING);
+    private final TimingsDump timingsDump = new TimingsDump("SnakeweedCollector", timings, logger, tickClock);
+
+    // Single per-tick read of the world shared by every node's validate()
+    private final WorldSnapshot world = new WorldSnapshot(tickClock, api);
+    private final InventorySnapshot inventory = world.inventory();
+
+    // Both teleports of every trip, by last destination where the ring allows it
+    private final FairyRingTravel rings = new FairyRingTravel(api, scheduler, logger);
+
+    // Combat and tribesman checks, once per tick rather than on every validate
+    private final ThreatMonitor threats = new ThreatMonitor(tickClock, TRIBESMAN_ID);
+
+    // Herbs per minute per world, kept next to the log between runs
+    private final WorldSelector worlds = new WorldSelector(logger,
+        new File(System.getProperty("user.home"), "DreamBot" + File.separator + "Logs" + File.separator + "scripts"));
+    private final int[] hopCandidates = new int[WORLD_CANDIDATES];
+
+    // Emergency combat first, then the trip in priority order
+    private final NodeEngine<SnakeweedNode> engine = new NodeEngine<SnakeweedNode>(logger)
+        .add(new CombatNode())
+        .add(new BankNode())
+        .add(new HopWorld())
+        .add(new CollectHerbs())
+        .add(new UseCkrRing())
+        .add(new ReturnToCkr())
+        .add(new WalkToVines())
+        .add(new WalkToBank())
+        .add(new UseGeRing())
+        .add(new WalkToGeRing());
+
     private static final int TRIBESMAN_ID = 530;
     private static final int[] ANTIPOISON_IDS = {2446, 2448, 2450, 2452}; // All antipoison potion variants
-    private static final int[] FOOD_IDS = {379, 385, 373}; // Example: Lobster, Shark, Swordfish
+    private static final int[] FOOD_IDS = {379, 385, 373}; // Lobster, Shark, Swordfish
+
+    // More than the client lists
+    private static final int WORLD_CANDIDATES = 256;
 
     /**
-     * States represent each stage of the collection process
-     * Must progress linearly through states to maintain script flow
+     * States represent each stage of the collection process, one per node,
+     * kept for the paint and the state timings
      */
     private enum State {
         WALK_TO_GE_RING,      // Initial walking to GE fairy ring
         USE_GE_RING,          // Using ring to teleport to Karamja
         WALK_TO_VINES,        // Walking to vine collection area
         COLLECT_HERBS,        // Collecting snakeweed from vines
+        HOP_WORLD,            // Leaving vines other players keep empty
         RETURN_TO_CKR,        // Walking back to CKR fairy ring
         USE_CKR_RING,         // Using ring to return to GE
         WALK_TO_BANK,         // Walking to GE bank
@@ -92,277 +180,616 @@ public class SnakeweedCollector extends AbstractScript implements PaintListener
     @Override
     public void onStart() {
         startTime = System.currentTimeMillis();
-        log("Starting Snakeweed Collector...");
+        logger.start();
+        logger.info("Starting Snakeweed Collector...");
+        worlds.load();
     }
 
     /**
-     * Main script loop handling state transitions and actions
+     * Flushes the log when the script stops
+     */
+    @Override
+    public void onExit() {
+        logger.info("Snakeweed Collector ended, herbs collected: {}", herbsCollected);
+        logger.info(timings.lapSummary());
+        timingsDump.write();
+        worlds.save();
+        logger.close();
+    }
+
+    /**
+     * Main script loop: records timings and paint, then runs the first node that applies
      * Returns sleep time between iterations
      */
     @Override
     public int onLoop() {
-        // Add these checks at the start of onLoop
-        if (Combat.isPoisoned() || isInCombat()) {
-            currentState = State.HANDLE_COMBAT;
-        }
-
-        switch (currentState) {
-            case WALK_TO_GE_RING:
-                if (!GE_FAIRY_RING_AREA.contains(Players.getLocal())) {
-                    log("Walking to GE fairy ring");
-                    if (Walking.walk(GE_FAIRY_RING_AREA.getCenter())) {
-                        Sleep.sleepUntil(() -> GE_FAIRY_RING_AREA.contains(Players.getLocal()), 5000);
-                    }
-                    return 600;
-                }
-                log("Reached GE fairy ring");
-                currentState = State.USE_GE_RING;
-                return 100;
-
-            case USE_GE_RING:
-                if (useFairyRing("CKR")) {
-                    log("Successfully teleported to CKR");
-                    currentState = State.WALK_TO_VINES;
-                }
-                return 600;
-
-            case WALK_TO_VINES:
-                if (!VINE_AREA.contains(Players.getLocal())) {
-                    log("Walking to vine area");
-                    if (Walking.walk(VINE_AREA.getCenter())) {
-                        Sleep.sleepUntil(() -> VINE_AREA.contains(Players.getLocal()), 5000);
-                    }
-                    return 600;
-                }
-                log("Reached vine area");
-                currentState = State.COLLECT_HERBS;
-                return 100;
-
-            case COLLECT_HERBS:
-                if (Inventory.isFull()) {
-                    currentState = State.RETURN_TO_CKR;
-                    return 100;
-                }
-                return collectHerbs();
-
-            case RETURN_TO_CKR:
-                if (!CKR_FAIRY_RING_AREA.contains(Players.getLocal())) {
-                    log("Walking to CKR fairy ring");
-                    if (Walking.walk(CKR_FAIRY_RING_AREA.getCenter())) {
-                        Sleep.sleepUntil(() -> CKR_FAIRY_RING_AREA.contains(Players.getLocal()), 5000);
-                    }
-                    return 600;
-                }
-                log("Reached CKR fairy ring");
-                currentState = State.USE_CKR_RING;
-                return 100;
-
-            case USE_CKR_RING:
-                if (useFairyRing("DKR")) {
-                    log("Successfully teleported to GE");
-                    currentState = State.WALK_TO_BANK;
-                }
-                return 600;
-
-            case WALK_TO_BANK:
-                if (!BANK_AREA.contains(Players.getLocal())) {
-                    log("Walking to bank");
-                    if (Walking.walk(BANK_AREA.getCenter())) {
-                        Sleep.sleepUntil(() -> BANK_AREA.contains(Players.getLocal()), 5000);
-                    }
-                    return 600;
-                }
-                log("Reached bank");
-                currentState = State.BANKING;
-                return 100;
-
-            case BANKING:
-                if (handleBanking()) {
-                    // Only proceed if we're healthy
-                    if (needsHealing() || isPoisoned()) {
-                        return 600; // Stay in banking state
-                    }
-                    currentState = State.WALK_TO_GE_RING;
-                }
-                return 600;
+        tickClock.update();
+        long now = tickClock.now();
+        timings.observe(currentState(), now);
+        timingsDump.maybeWrite(now);
+        updatePaint();
+        if (scheduler.isWaiting()) {
+            return scheduler.pollDelay();
+        }
 
-            case HANDLE_COMBAT:
-                handleCombatSituation();
-                return 600;
+        int delay = engine.run(world);
+        return delay >= 0 ? delay : scheduler.nextTick();
+    }
+
+    /**
+     * @return State of the node that ran last, for the paint and the timings
+     */
+    private State currentState() {
+        SnakeweedNode current = engine.current();
+        return current != null ? current.state : State.WALK_TO_GE_RING;
+    }
+
+    /**
+     * @return true once the trip should head home: a full inventory with no room left in
+     *         the herb sack, poison or low health
+     */
+    private boolean needsBank(WorldSnapshot world) {
+        return (world.inventory().isFull() && !sack.hasRoom(world.inventory()))
+            || world.isPoisoned() || world.healthPercent() < 50;
+    }
+
+    /**
+     * @return true if the bank has something to fix on the GE side: herbs to deposit,
+     *         poison to cure or health to restore
+     */
+    private boolean hasBankBusiness(WorldSnapshot world) {
+        return world.inventory().contains(GRIMY_SNAKEWEED) || sack.stored() > 0
+            || world.isPoisoned() || world.healthPercent() < 50;
+    }
+
+    /**
+     * Node that also reports which State it stands for
+     */
+    private abstract static class SnakeweedNode extends Node {
+        final State state;
+
+        SnakeweedNode(String name, int priority, State state) {
+            super(name, priority);
+            this.state = state;
         }
-        return 600;
+    }
+
+    /**
+     * Attacked by a tribesman or anything else: run for the nearest fairy ring
+     */
+    private final class CombatNode extends SnakeweedNode {
+        CombatNode() {
+            super("Combat", 100, State.HANDLE_COMBAT);
+        }
+
+        @Override
+        public boolean isEmergency() {
+            return true;
+        }
+
+        // The first validate of a tick may run the NPC scan for a tribesman, a client query
+        @Override
+        public long validateBudgetNanos() {
+            return 2_000_000;
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return threats.level(KARAMJA_AREA.contains(world.tile())) != ThreatMonitor.Level.NONE;
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            handleCombatSituation();
+            return scheduler.nextTick();
+        }
+    }
+
+    /**
+     * At the GE bank: cure, heal and deposit herbs
+     */
+    private final class BankNode extends SnakeweedNode {
+        BankNode() {
+            super("Bank", 90, State.BANKING);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return BANK_AREA.contains(world.tile()) && (world.bankOpen() || hasBankBusiness(world));
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            return handleBanking(world);
+        }
+    }
+
+    private final class CollectHerbs extends SnakeweedNode {
+        CollectHerbs() {
+            super("CollectHerbs", 70, State.COLLECT_HERBS);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return VINE_AREA.contains(world.tile()) && !needsBank(world);
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            return collectHerbs();
+        }
+    }
+
+    /**
+     * At the vines on a world where other players leave them empty: hop to a better one
+     */
+    private final class HopWorld extends SnakeweedNode {
+        HopWorld() {
+            super("HopWorld", 75, State.HOP_WORLD);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return VINE_AREA.contains(world.tile()) && !needsBank(world) && worlds.shouldHop();
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            return hopWorld();
+        }
+    }
+
+    private final class UseCkrRing extends SnakeweedNode {
+        UseCkrRing() {
+            super("UseCkrRing", 60, State.USE_CKR_RING);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return CKR_FAIRY_RING_AREA.contains(world.tile()) && needsBank(world);
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            return rings.travel("DKR", GE_FAIRY_RING_AREA);
+        }
+    }
+
+    private final class ReturnToCkr extends SnakeweedNode {
+        ReturnToCkr() {
+            super("ReturnToCkr", 50, State.RETURN_TO_CKR);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return KARAMJA_AREA.contains(world.tile()) && needsBank(world);
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            logger.info("Walking to CKR fairy ring");
+            return walkTo(CKR_FAIRY_RING_AREA);
+        }
+    }
+
+    private final class WalkToVines extends SnakeweedNode {
+        WalkToVines() {
+            super("WalkToVines", 40, State.WALK_TO_VINES);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return KARAMJA_AREA.contains(world.tile());
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            logger.info("Walking to vine area");
+            return walkTo(VINE_AREA);
+        }
+    }
+
+    private final class WalkToBank extends SnakeweedNode {
+        WalkToBank() {
+            super("WalkToBank", 30, State.WALK_TO_BANK);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return hasBankBusiness(world);
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            logger.info("Walking to bank");
+            return walkTo(BANK_AREA);
+        }
+    }
+
+    private final class UseGeRing extends SnakeweedNode {
+        UseGeRing() {
+            super("UseGeRing", 20, State.USE_GE_RING);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return GE_FAIRY_RING_AREA.contains(world.tile());
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            return rings.travel("CKR", CKR_FAIRY_RING_AREA);
+        }
+    }
+
+    /**
+     * Fallback on the GE side with nothing to bank
+     */
+    private final class WalkToGeRing extends SnakeweedNode {
+        WalkToGeRing() {
+            super("WalkToGeRing", 10, State.WALK_TO_GE_RING);
+        }
+
+        @Override
+        public boolean validate(WorldSnapshot world) {
+            return world.tile() != null;
+        }
+
+        @Override
+        public int execute(WorldSnapshot world) {
+            logger.info("Walking to GE fairy ring");
+            return walkTo(GE_FAIRY_RING_AREA);
+        }
+    }
+
+    /**
+     * Walks towards the centre of an area and waits until inside it
+     * @return Sleep duration in milliseconds
+     */
+    private int walkTo(Area area) {
+        if (Walking.walk(area.getCenter())) {
+            return scheduler.until(() -> area.contains(Players.getLocal()), 5000);
+        }
+        return scheduler.nextTick();
     }
 
     /**
      * Handles herb collection from vines
      * Includes dialogue handling and interaction timing
-     * Tracks successful collections through inventory changes
+     * Tracks successful collections through inventory changes, and records each
+     * search's outcome against its vine so the registry can pick the next one
      * 
      * @return Sleep duration in milliseconds
      */
     private int collectHerbs() {
+        long now = System.currentTimeMillis();
+
+        // A new world, by hop or by hand: measure it from scratch, its vines are in another state
+        int current = Worlds.getCurrentWorld();
+        if (current != worlds.world()) {
+            worlds.arrived(current);
+            vines.forget();
+            searchedVine = -1;
+        }
+        worlds.observe(now, this::playersAtVines);
+
         // Check if we collected something by comparing counts
-        int currentCount = Inventory.count(GRIMY_SNAKEWEED);
+        int currentCount = inventory.count(GRIMY_SNAKEWEED);
+        if (sack.isFilling()) {
+            sack.fillLanded(currentCount);
+            logger.info("Herb sack holds {}/{}", sack.stored(), HerbSack.CAPACITY);
+        }
+        if (currentCount < previousInventoryCount) {
+            // Herbs were banked or went into the sack since the last search
+            previousInventoryCount = currentCount;
+        }
         if (currentCount > previousInventoryCount) {
             herbsCollected++;
-            log("Herb collected! Total: " + herbsCollected);
+            logger.info("Herb collected! Total: {}", herbsCollected);
             previousInventoryCount = currentCount;
-            sleep(300);
-            return 100;
+            if (searchedVine >= 0) {
+                vines.searched(searchedVine, true, now);
+                worlds.searched(true);
+                searchedVine = -1;
+            }
+            return scheduler.nextTick();
+        }
+
+        // The search ended without a herb: a dialogue came up, or the player stopped
+        boolean animating = Players.getLocal().isAnimating();
+        if (searchedVine >= 0 && (Dialogues.canContinue()
+                || (!animating && now - lastInteractionTime >= INTERACTION_COOLDOWN))) {
+            vines.searched(searchedVine, false, now);
+            worlds.searched(false);
+            searchedVine = -1;
         }
 
         // Handle dialogue
         if (Dialogues.canContinue()) {
             Dialogues.continueDialogue();
-            return 100;
+            return scheduler.nextTick();
+        }
+
+        // A full inventory goes into the sack and the trip carries on
+        int sackId = sack.heldId(inventory);
+        if (inventory.isFull() && currentCount > 0 && sack.hasRoom(inventory)
+                && Inventory.interact(sackId, "Fill")) {
+            sack.fillSent(currentCount);
+            return scheduler.until(() -> inventory.count(GRIMY_SNAKEWEED) < currentCount, INTERACTION_COOLDOWN);
         }
 
         // Respect interaction cooldown
-        if (System.currentTimeMillis() - lastInteractionTime < INTERACTION_COOLDOWN) {
-            return 100;
+        if (now - lastInteractionTime < INTERACTION_COOLDOWN) {
+            return scheduler.nextTick();
         }
 
-        GameObject vine = GameObjects.closest(obj -> 
-            obj != null && 
-            obj.exists() &&
-            VINE_AREA.contains(obj) &&
-            (obj.getName().equals("Marshy jungle vine") || obj.getID() == VINE_ID) &&
-            obj.hasAction("Search")
-        );
+        // The full scene scan runs once, and again only when an indexed vine has gone
+        if (!vines.isIndexed()) {
+            vines.index(GameObjects.all(VineFilter::matches));
+        }
+        Tile player = world.tile();
+        int next = player != null ? vines.next(player.getX(), player.getY(), now) : -1;
+        GameObject vine = next >= 0 ? vines.handle(next) : null;
+        if (vine != null && !vine.exists()) {
+            vines.invalidate();
+            return scheduler.nextTick();
+        }
 
-        if (vine != null && vine.exists()) {
+        if (vine != null) {
             if (vine.distance() > 4) {
                 Walking.walk(vine);
-                return 600;
+                return scheduler.nextTick();
             }
 
-            if (!Players.getLocal().isAnimating() && vine.interact("Search")) {
-                lastInteractionTime = System.currentTimeMillis();
-                Sleep.sleepUntil(() -> Dialogues.canContinue(), 2000);
+            // Close enough already; wait here for the herb rather than search early. Tick by
+            // tick, so combat still gets its look in, and without a scan it costs nothing
+            if (vines.availableIn(next, now) > 0) {
+                return scheduler.nextTick();
+            }
+
+            if (!animating && vine.interact("Search")) {
+                lastInteractionTime = now;
+                searchedVine = next;
+                return scheduler.untilEvent(HERB_GAINED, Dialogues::canContinue, 2000);
             }
         } else {
             Camera.rotateToTile(new Tile(2765, 3028, 0));
         }
 
-        return 200;
+        return scheduler.nextTick();
     }
 
     /**
-     * Manages banking operations
-     * Opens bank, deposits herbs, and closes interface
-     * 
-     * @return true if banking completed successfully
+     * @return Other players standing among the vines
+     */
+    private int playersAtVines() {
+        List<Player> nearby = Players.all(p -> p != null
+            && !p.equals(Players.getLocal()) && VINE_AREA.contains(p));
+        return nearby != null ? nearby.size() : 0;
+    }
+
+    /**
+     * Hops to the world expected to give the most herbs per minute, and waits to land
+     * @return Sleep duration in milliseconds
+     */
+    private int hopWorld() {
+        long now = System.currentTimeMillis();
+        // Normal members worlds only: no league, tournament, speedrun, beta or fresh-start
+        // worlds, no PvP, high-risk or deadman ones, and no total level requirement
+        List<World> open = Worlds.all(w -> w != null && w.isMembers() && w.isNormal()
+            && !w.isLeagueWorld() && !w.isTournamentWorld() && !w.isBetaWorld() && !w.isFreshStart()
+            && !w.isPVP() && !w.isHighRisk() && !w.isDeadmanMode() && w.getMinimumLevel() == 0);
+        int count = 0;
+        if (open != null) {
+            for (World w : open) {
+                if (count < hopCandidates.length) {
+                    hopCandidates[count++] = w.getWorld();
+                }
+            }
+        }
+
+        int target = worlds.pick(hopCandidates, count, now);
+        if (target < 0) {
+            // Nowhere better to go: measure this world for another window
+            logger.info("No world to hop to, staying on {}", worlds.world());
+            worlds.arrived(worlds.world());
+            return scheduler.nextTick();
+        }
+
+        if (WorldHopper.hopWorld(target)) {
+            logger.info("Vines contested ({}), hopping to world {}", worlds.summary(), target);
+            worlds.left(now);
+            worlds.save();
+            return scheduler.until(() -> Worlds.getCurrentWorld() == target, 15000);
+        }
+        return scheduler.nextTick();
+    }
+
+    /**
+     * Takes the next banking step: open the bank, cure, heal, then deposit the herbs and
+     * empty the sack, and close it once there is nothing left to do
+     * @return Sleep duration in milliseconds
      */
-    private boolean handleBanking() {
-        if (!Bank.isOpen()) {
-            Bank.open();
-            Sleep.sleepUntil(Bank::isOpen, 3000);
-            return false;
+    private int handleBanking(WorldSnapshot world) {
+        if (!world.bankOpen()) {
+            if (Bank.open()) {
+                return scheduler.until(Bank::isOpen, 3000);
+            }
+            return scheduler.nextTick();
+        }
+
+        // The last Empty's wait is over: it counts once the herbs have shown up
+        if (sack.isEmptying()) {
+            int before = sack.stored();
+            if (sack.emptyLanded(herbsSeen())) {
+                logger.info("Emptied herb sack, about {} herbs", before);
+            } else {
+                logger.warn("Herb sack Empty didn't land, trying again");
+            }
         }
 
-        // Handle poison first
+        // Poison first: a dose comes out on one pass and is drunk on the next
         if (isPoisoned()) {
-            for (int potionId : ANTIPOISON_IDS) {
-                if (Bank.contains(potionId)) {
-                    Bank.withdraw(potionId, 1);
-                    Sleep.sleepUntil(() -> Inventory.contains(potionId), 2000);
-                    if (Inventory.contains(potionId)) {
-                        Inventory.interact(potionId, "Drink");
-                        Sleep.sleepUntil(() -> !isPoisoned(), 2000);
-                    }
-                    break;
+            int potion = firstHeld(ANTIPOISON_IDS);
+            if (potion != -1) {
+                if (Inventory.interact(potion, "Drink")) {
+                    return scheduler.until(() -> !isPoisoned(), 2000);
+                }
+                return scheduler.nextTick();
+            }
+            potion = firstInBank(ANTIPOISON_IDS);
+            if (potion != -1) {
+                int id = potion;
+                if (Bank.withdraw(id, 1)) {
+                    return scheduler.until(() -> inventory.contains(id), 2000);
                 }
+                return scheduler.nextTick();
             }
         }
 
-        // Handle healing if needed
+        // Then healing, one bite a pass
         if (needsHealing()) {
-            for (int foodId : FOOD_IDS) {
-                if (Bank.contains(foodId)) {
-                    Bank.withdraw(foodId, 5);
-                    Sleep.sleepUntil(() -> Inventory.contains(foodId), 2000);
-                    while (needsHealing() && Inventory.contains(foodId)) {
-                        Inventory.interact(foodId, "Eat");
-                        sleep(600);
-                    }
-                    break;
+            int food = firstHeld(FOOD_IDS);
+            if (food != -1) {
+                int id = food;
+                int count = inventory.count(id);
+                if (Inventory.interact(id, "Eat")) {
+                    return scheduler.until(() -> inventory.count(id) < count, 1800);
                 }
+                return scheduler.nextTick();
+            }
+            food = firstInBank(FOOD_IDS);
+            if (food != -1) {
+                int id = food;
+                if (Bank.withdraw(id, 5)) {
+                    return scheduler.until(() -> inventory.contains(id), 2000);
+                }
+                return scheduler.nextTick();
             }
         }
 
-        // Only deposit snakeweed if we're healthy
-        if (!isPoisoned() && !needsHealing()) {
-            if (Bank.depositAll(GRIMY_SNAKEWEED)) {
-                Sleep.sleepUntil(() -> !Inventory.contains(GRIMY_SNAKEWEED), 2000);
-                Bank.close();
-                return true;
+        // Only deposit snakeweed if we're healthy. The inventory and the herb sack go in
+        // as one batch: both sent back-to-back, then a single wait
+        if (isPoisoned() || needsHealing()) {
+            return scheduler.nextTick();
+        }
+        boolean sent = false;
+        if (inventory.contains(GRIMY_SNAKEWEED)) {
+            sent = Bank.depositAll(GRIMY_SNAKEWEED);
+        }
+        int sackId = sack.heldId(inventory);
+        if (sackId != -1 && sack.stored() > 0) {
+            int herbs = herbsSeen();
+            if (Inventory.interact(sackId, "Empty")) {
+                sack.emptySent(herbs);
+                sent = true;
             }
         }
+        if (sent) {
+            return scheduler.until(() -> !inventory.contains(GRIMY_SNAKEWEED)
+                && (!sack.isEmptying() || herbsSeen() > sack.emptyFrom()), 2000);
+        }
+        if (!inventory.contains(GRIMY_SNAKEWEED) && sack.stored() == 0 && Bank.close()) {
+            return scheduler.until(() -> !Bank.isOpen(), 1200);
+        }
+        return scheduler.nextTick();
+    }
 
-        return false;
+    /**
+     * @return Snakeweed in the open bank and the inventory together, which a deposit
+     *         leaves as it is and an Empty raises
+     */
+    private int herbsSeen() {
+        return Bank.count(GRIMY_SNAKEWEED) + inventory.count(GRIMY_SNAKEWEED);
     }
 
     /**
-     * Handles fairy ring transportation
-     * Critical: Must handle interface properly and verify teleport
-     * 
-     * @param code Fairy ring code (e.g., "CKR", "DKR")
-     * @return true if teleport completed successfully
+     * @return The first of the items the inventory holds, -1 if none
      */
-    private boolean useFairyRing(String code) {
-        GameObject ring = GameObjects.closest("Fairy ring");
-        
-        if (ring == null || !ring.exists()) {
-            log("No fairy ring found!");
-            return false;
-        }
-
-        if (!FairyRings.travelInterfaceOpen()) {
-            log("Opening fairy ring interface");
-            if (ring.interact("Configure")) {
-                Sleep.sleepUntil(FairyRings::travelInterfaceOpen, 3000);
+    private int firstHeld(int[] ids) {
+        for (int id : ids) {
+            if (inventory.contains(id)) {
+                return id;
             }
-            return false;
-        }
-
-        if (FairyRings.travelInterfaceOpen()) {
-            log("Entering code: " + code);
-            String[] codes = code.split("");
-            FairyRings.enterCode(0, codes[0]);
-            sleep(200);
-            FairyRings.enterCode(1, codes[1]);
-            sleep(200);
-            FairyRings.enterCode(2, codes[2]);
-            sleep(200);
-            
-            if (FairyRings.travel(codes)) {
-                log("Travel initiated");
-                Sleep.sleepUntil(() -> !Players.getLocal().isAnimating(), 5000);
-                sleep(600);
-                return true;
+        }
+        return -1;
+    }
+
+    /**
+     * @return The first of the items the open bank holds, -1 if none
+     */
+    private static int firstInBank(int[] ids) {
+        for (int id : ids) {
+            if (Bank.contains(id)) {
+                return id;
             }
         }
-        return false;
+        return -1;
     }
 
     /**
      * Renders script statistics overlay
      * Shows runtime, herbs collected, and current state
+     * Only blits the cached panel; the text is built in updatePaint()
      */
     @Override
     public void onPaint(Graphics g) {
-        g.setColor(new Color(0, 0, 0, 180));
-        g.fillRect(5, 5, 210, 90);
+        panel.paint(g);
+    }
+
+    // Client listener callbacks, forwarded to the event bus the herb waits end on
+
+    @Override
+    public void onInventoryItemChanged(Item incoming, Item outgoing) {
+        ClientEvents.itemChanged(api.events(), incoming, outgoing);
+    }
+
+    @Override
+    public void onInventoryItemAdded(Item item) {
+        ClientEvents.itemAdded(api.events(), item);
+    }
+
+    @Override
+    public void onInventoryItemRemoved(Item item) {
+        ClientEvents.itemRemoved(api.events(), item);
+    }
+
+    @Override
+    public void onGameMessage(Message message) {
+        ClientEvents.gameMessage(api.events(), message);
+    }
+
+    @Override
+    public void onGained(SkillEvent event) {
+        ClientEvents.experience(api.events(), event);
+    }
 
-        g.setColor(Color.WHITE);
-        int y = 20;
-        g.drawString("Snakeweed Collector", 10, y);
-        y += 20;
-        g.drawString("Runtime: " + getRunTime(), 10, y);
-        y += 20;
-        g.drawString("Herbs: " + herbsCollected + " (" + getPerHour(herbsCollected) + "/hr)", 10, y);
-        y += 20;
-        g.drawString("State: " + currentState, 10, y);
+    /**
+     * Rebuilds the overlay text at most once per second, or straight away on a state change
+     */
+    private void updatePaint() {
+        long now = System.currentTimeMillis();
+        State state = currentState();
+        if (!panel.isDue(now) && state == paintedState) {
+            return;
+        }
+        paintedState = state;
+        herbRate.record(now, herbsCollected);
+        panel.publish(now, new String[] {
+            "Snakeweed Collector",
+            "Runtime: " + getRunTime(),
+            "Herbs: " + herbsCollected + " (" + herbRate.perHour(now, RateEstimator.FIFTEEN_MINUTES)
+                + "/hr, 5m " + herbRate.perHour(now, RateEstimator.FIVE_MINUTES) + ")",
+            timings.lapSummary(),
+            timings.slowestSummary(),
+            engine.validateSummary(),
+            vines.summary(),
+            worlds.summary(),
+            "Herb sack: " + (sack.heldId(inventory) != -1 ? sack.stored() + "/" + HerbSack.CAPACITY : "none")
+                + ", " + sack.herbsPerTrip(inventory, inventory.emptySlots() + inventory.count(GRIMY_SNAKEWEED))
+                + " herbs a trip",
+            "State: " + state
+        });
     }
 
     /**
@@ -379,27 +806,6 @@ public class SnakeweedCollector extends AbstractScript implements PaintListener
         return String.format("%02d:%02d:%02d", hours, minutes, seconds);
     }
 
-    /**
-     * Calculates per hour rate for any value
-     * Used for herbs collected per hour calculation
-     * 
-     * @param value Current total value
-     * @return Calculated per hour rate
-     */
-    private int getPerHour(int value) {
-        double timeRan = (System.currentTimeMillis() - startTime) / 3600000.0;
-        return (int) (value / timeRan);
-    }
-
-    // Add these helper methods
-    private boolean isInCombat() {
-        return Players.getLocal().isInCombat() || 
-               Players.getLocal().getInteractingCharacter() != null ||
-               NPCs.closest(npc -> npc != null && 
-                                 npc.getID() == TRIBESMAN_ID && 
-                                 npc.isInteracting(Players.getLocal())) != null;
-    }
-
     private boolean isPoisoned() {
         return Combat.isPoisoned();
     }
@@ -408,34 +814,23 @@ public class SnakeweedCollector extends AbstractScript implements PaintListener
         return Players.getLocal().getHealthPercent() < 50;
     }
 
-    // Add this new method
+    /**
+     * Turns run on and heads for the nearest fairy ring, away from whatever is attacking
+     */
     private void handleCombatSituation() {
-        log("Handling combat/poison situation!");
-        
-        if (isInCombat()) {
-            // Run away if not already running
-            if (!Walking.isRunEnabled() && Walking.getRunEnergy() > 20) {
-                Walking.toggleRun();
-            }
-            
-            // Run to nearest fairy ring
-            GameObject nearestRing = GameObjects.closest("Fairy ring");
-            if (nearestRing != null) {
-                Walking.walk(nearestRing);
-            } else {
-                Walking.walk(CKR_FAIRY_RING_AREA.getCenter());
-            }
-            
-            return;
+        logger.info("Handling combat situation! Threat: {}", threats.level(KARAMJA_AREA.contains(world.tile())));
+
+        // Run away if not already running
+        if (!Walking.isRunEnabled() && Walking.getRunEnergy() > 20) {
+            Walking.toggleRun();
         }
-        
-        // If we're out of combat but need banking, head to bank
-        if (!BANK_AREA.contains(Players.getLocal())) {
-            if (CKR_FAIRY_RING_AREA.contains(Players.getLocal())) {
-                currentState = State.USE_CKR_RING;
-            } else if (GE_FAIRY_RING_AREA.contains(Players.getLocal())) {
-                currentState = State.WALK_TO_BANK;
-            }
+
+        // Run to nearest fairy ring
+        GameObject nearestRing = GameObjects.closest("Fairy ring");
+        if (nearestRing != null) {
+            Walking.walk(nearestRing);
+        } else {
+            Walking.walk(CKR_FAIRY_RING_AREA.getCenter());
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package org.dreambot.collector;
+
+import org.dreambot.api.methods.interactive.NPCs;
+import org.dreambot.api.methods.interactive.Players;
+import org.dreambot.api.wrappers.interactive.Player;
+import org.dreambot.core.TickClock;
+
+/*
+ * ThreatMonitor.java
+ *
+ * Whether anything is after the player, worked out at most once per game tick and kept
+ * for every read in between.
+ *
+ * Key functionality:
+ * - The player's own combat state comes first: in combat or interacting with a
+ *   character means ATTACKED, and no NPC scan is needed
+ * - The NPC scan for a tribesman targeting the player only runs where tribesmen are;
+ *   elsewhere the level is settled by the player's state alone
+ * - level() in the same tick returns the cached answer, so the combat node's validate
+ *   on every loop costs a comparison
+ *
+ * The client only hands scripts item, chat and experience callbacks, so there are no
+ * NPC spawn or hitsplat events to drive this; the tick is the finest grain the game
+ * changes at anyway.
+ */
+final class ThreatMonitor {
+    enum Level {
+        NONE,
+        TARGETED,       // An NPC is interacting with the player but hasn't hit yet
+        ATTACKED        // The player is in combat
+    }
+
+    private final TickClock clock;
+    private final int npcId;
+
+    private long checkedTick = -1;
+    private Level level = Level.NONE;
+    private int scans;
+
+    /**
+     * @param clock Tick clock the cache is keyed on
+     * @param npcId NPC that attacks on sight where scanNpcs is set
+     */
+    ThreatMonitor(TickClock clock, int npcId) {
+        this.clock = clock;
+        this.npcId = npcId;
+    }
+
+    /**
+     * @param scanNpcs true where the NPC is found, so it is worth scanning for
+     * @return Threat level this tick, re-read on the first call of each tick
+     */
+    Level level(boolean scanNpcs) {
+        long tick = clock.tickIndex();
+        if (tick == checkedTick) {
+            return level;
+        }
+        checkedTick = tick;
+
+        Player me = Players.getLocal();
+        if (me == null) {
+            level = Level.NONE;
+        } else if (me.isInCombat() || me.getInteractingCharacter() != null) {
+            level = Level.ATTACKED;
+        } else if (scanNpcs && targeted(me)) {
+            level = Level.TARGETED;
+        } else {
+            level = Level.NONE;
+        }
+        return level;
+    }
+
+    /**
+     * @return NPC scans run so far
+     */
+    int scans() {
+        return scans;
+    }
+
+    private boolean targeted(Player me) {
+        scans++;
+        return NPCs.closest(npc -> npc != null && npc.getID() == npcId && npc.isInteracting(me)) != null;
+    }
+}
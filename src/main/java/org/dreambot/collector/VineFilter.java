@@ -0,0 +1,66 @@
+package org.dreambot.collector;
+
+import org.dreambot.api.wrappers.interactive.GameObject;
+
+/*
+ * VineFilter.java
+ *
+ * The object filter collectHerbs hands to GameObjects.all when it indexes the vines,
+ * split out so it can be benchmarked without a client.
+ *
+ * Key functionality:
+ * - Runs once per loaded object on every scan, so the checks go cheapest first: the
+ *   integer ID and tile bounds before the name compare and the action lookup
+ * - The plain-value overload holds the actual rules; the GameObject overload only reads
+ *   the object and forwards
+ */
+public final class VineFilter {
+    public static final int VINE_ID = 21941;          // Marshy jungle vine ID
+    public static final String VINE_NAME = "Marshy jungle vine";
+    private static final String SEARCH = "Search";
+
+    // Same bounds as SnakeweedCollector.VINE_AREA; VineRegistry's grid covers them too
+    static final int MIN_X = 2757;
+    static final int MIN_Y = 3014;
+    static final int MAX_X = 2776;
+    static final int MAX_Y = 3044;
+
+    private VineFilter() {
+    }
+
+    /**
+     * @param obj Candidate object from the scan, may be null
+     * @return true if the object is a searchable vine inside the vine area
+     */
+    public static boolean matches(GameObject obj) {
+        return obj != null
+            && obj.exists()
+            && matches(obj.getID(), obj.getName(), obj.getX(), obj.getY(), obj.getActions());
+    }
+
+    /**
+     * @param id Object ID
+     * @param name Object name, may be null
+     * @param x Tile x
+     * @param y Tile y
+     * @param actions Right-click actions, may be null or hold null entries
+     * @return true if the values describe a searchable vine inside the vine area
+     */
+    public static boolean matches(int id, String name, int x, int y, String[] actions) {
+        if (x < MIN_X || x > MAX_X || y < MIN_Y || y > MAX_Y) {
+            return false;
+        }
+        if (id != VINE_ID && !VINE_NAME.equals(name)) {
+            return false;
+        }
+        if (actions == null) {
+            return false;
+        }
+        for (String action : actions) {
+            if (SEARCH.equals(action)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,212 @@
+package org.dreambot.collector;
+
+import org.dreambot.api.wrappers.interactive.GameObject;
+import org.dreambot.core.TickClock;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * VineRegistry.java
+ *
+ * The vines inside the vine area, found with one scan and then chosen between by when
+ * each should next have a herb and how far away it is, instead of a scene scan per search.
+ *
+ * Key functionality:
+ * - index() takes one VineFilter scan and files each vine under its tile in a grid over
+ *   the vine area's bounds; picking a vine afterwards never touches the scene
+ * - Search outcomes are kept per tile, so they outlive a rescan after a region reload
+ * - A herb makes the vine worth searching again straight away; an empty search puts it
+ *   off until its predicted respawn
+ * - The respawn is learned across all vines from how long after an empty search a herb
+ *   turned up. Vines are retried a little before it is due so an estimate that is too
+ *   long comes down; an empty retry pushes it back up past the gap just seen
+ * - next() picks the vine whose herb the player can have soonest, the walk there and the
+ *   wait for it overlapping, ties going to the nearer one
+ */
+public final class VineRegistry {
+    // Grid over VineFilter's bounds, one cell per tile
+    private static final int WIDTH = VineFilter.MAX_X - VineFilter.MIN_X + 1;
+    private static final int HEIGHT = VineFilter.MAX_Y - VineFilter.MIN_Y + 1;
+
+    // Far more than the area holds
+    private static final int MAX_VINES = 64;
+
+    // Until a respawn has been seen; the estimate never drops below a tick
+    private static final long DEFAULT_RESPAWN_MS = 30_000;
+    private static final long MIN_RESPAWN_MS = TickClock.TICK_MS;
+
+    // Share of the estimate to wait before a retry, and how far past the gap an empty retry pushes it
+    private static final double RETRY_EARLY = 0.8;
+    private static final double EMPTY_BACKOFF = 1.5;
+    private static final double ALPHA = 0.2;
+
+    // Searching reaches a vine from the next tile; running covers two tiles a tick
+    private static final int REACH = 1;
+    private static final int TILES_PER_TICK = 2;
+
+    // Tiles holding a vine in the current index
+    private final boolean[] taken = new boolean[WIDTH * HEIGHT];
+    private final int[] vineCells = new int[MAX_VINES];
+    private final GameObject[] handles = new GameObject[MAX_VINES];
+    private int count;
+
+    // Per tile: when a search there is next worth it, and the first empty search since its last herb (-1 none)
+    private final long[] availableAt = new long[WIDTH * HEIGHT];
+    private final long[] emptyAt = new long[WIDTH * HEIGHT];
+
+    private double respawnMs = DEFAULT_RESPAWN_MS;
+    private int respawns;
+    private int scans;
+
+    public VineRegistry() {
+        Arrays.fill(emptyAt, -1);
+    }
+
+    /**
+     * @return true while the index holds vines from the last scan
+     */
+    public boolean isIndexed() {
+        return count > 0;
+    }
+
+    /**
+     * Replaces the index with one scan's vines
+     * @param vines Objects VineFilter matched; outside the vine area or on a tile
+     *              already taken, they are skipped
+     * @return Vines indexed
+     */
+    public int index(List<GameObject> vines) {
+        Arrays.fill(taken, false);
+        count = 0;
+        scans++;
+        if (vines == null) {
+            return 0;
+        }
+        for (GameObject vine : vines) {
+            add(vine.getX(), vine.getY(), vine);
+        }
+        return count;
+    }
+
+    /**
+     * Adds one vine to the index
+     * @param handle Object to search it through
+     * @return false if the tile is outside the vine area or already taken
+     */
+    boolean add(int x, int y, GameObject handle) {
+        int cell = cell(x, y);
+        if (cell < 0 || taken[cell] || count == MAX_VINES) {
+            return false;
+        }
+        vineCells[count] = cell;
+        handles[count] = handle;
+        taken[cell] = true;
+        count++;
+        return true;
+    }
+
+    /**
+     * Drops the index, e.g. once a handle no longer exists, so the next pass scans again
+     */
+    public void invalidate() {
+        count = 0;
+    }
+
+    /**
+     * Drops the index and every vine's outcomes, e.g. on another world where the vines
+     * are in a different state; the learned respawn is kept
+     */
+    public void forget() {
+        count = 0;
+        Arrays.fill(availableAt, 0);
+        Arrays.fill(emptyAt, -1);
+    }
+
+    /**
+     * @return The object from the scan that indexed the vine
+     */
+    public GameObject handle(int vine) {
+        return handles[vine];
+    }
+
+    /**
+     * Records how a search ended
+     * @param vine Vine searched
+     * @param herb true if it gave a herb
+     * @param now Current time
+     */
+    public void searched(int vine, boolean herb, long now) {
+        int cell = vineCells[vine];
+        long since = emptyAt[cell] >= 0 ? now - emptyAt[cell] : -1;
+        if (herb) {
+            // The herb came back within the gap since the first empty search
+            if (since >= 0) {
+                respawnMs = Math.max(MIN_RESPAWN_MS,
+                    respawns == 0 ? since : respawnMs + ALPHA * (since - respawnMs));
+                respawns++;
+            }
+            emptyAt[cell] = -1;
+            availableAt[cell] = now;
+            return;
+        }
+        if (since >= 0) {
+            // Empty again: it takes longer than that
+            respawnMs = Math.max(respawnMs, since * EMPTY_BACKOFF);
+        } else {
+            emptyAt[cell] = now;
+        }
+        availableAt[cell] = Math.max(now, emptyAt[cell] + (long) (respawnMs * RETRY_EARLY));
+    }
+
+    /**
+     * @return How long until a search of the vine is worth it, 0 if it is now
+     */
+    public long availableIn(int vine, long now) {
+        return Math.max(0, availableAt[vineCells[vine]] - now);
+    }
+
+    /**
+     * @param x Player tile x
+     * @param y Player tile y
+     * @param now Current time
+     * @return Vine to search next, -1 if none is indexed
+     */
+    public int next(int x, int y, long now) {
+        int best = -1;
+        long bestMs = Long.MAX_VALUE;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int vine = 0; vine < count; vine++) {
+            int cell = vineCells[vine];
+            int distance = Math.max(Math.abs(VineFilter.MIN_X + cell % WIDTH - x),
+                Math.abs(VineFilter.MIN_Y + cell / WIDTH - y));
+            long walkMs = (long) ((Math.max(0, distance - REACH) + TILES_PER_TICK - 1) / TILES_PER_TICK)
+                * TickClock.TICK_MS;
+            long ms = Math.max(walkMs, availableAt[cell] - now);
+            if (ms < bestMs || (ms == bestMs && distance < bestDistance)) {
+                best = vine;
+                bestMs = ms;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return One line for the paint: vines indexed, scans so far and the respawn estimate
+     */
+    public String summary() {
+        return "Vines: " + count + " indexed, " + scans + " scans, respawn "
+            + (respawns > 0 ? String.format("%.1fs", respawnMs / 1000) : "unknown");
+    }
+
+    /**
+     * @return Grid cell of the tile, -1 outside the vine area
+     */
+    private static int cell(int x, int y) {
+        if (x < VineFilter.MIN_X || x > VineFilter.MAX_X || y < VineFilter.MIN_Y || y > VineFilter.MAX_Y) {
+            return -1;
+        }
+        return (y - VineFilter.MIN_Y) * WIDTH + x - VineFilter.MIN_X;
+    }
+}
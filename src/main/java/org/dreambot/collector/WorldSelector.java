@@ -0,0 +1,359 @@
+package org.dreambot.collector;
+
+import org.dreambot.core.log.ScriptLog;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/*
+ * WorldSelector.java
+ *
+ * Decides when the vines on this world have stopped paying and which world to hop to,
+ * from herbs per minute at the vines measured here and remembered across runs.
+ *
+ * Key functionality:
+ * - Time at the vines, herbs, searches, empty searches and the other players seen near
+ *   the vines are added up per world and kept in
+ *   ~/DreamBot/Logs/scripts/SnakeweedCollector-worlds.csv between runs
+ * - The current world's rate and empty share are read over the last WINDOW_MS of time
+ *   at the vines, so banking trips don't count against it
+ * - shouldHop() once a full window is in, the empty share says the vines are contested
+ *   or picked clean, and the rate is below HOP_FRACTION of what another world is
+ *   expected to give; the margin pays for the hop
+ * - pick() ranks worlds by their own yield once they have KNOWN_MS of history, fewer
+ *   players seen breaking ties; worlds never worked are expected to match the best rate
+ *   seen, and worlds just left sit out for REVISIT_MS
+ */
+final class WorldSelector {
+    private static final int MAX_WORLD = 640;
+
+    // Window samples, taken at most this often while at the vines
+    private static final long SAMPLE_MS = 5_000;
+    private static final long WINDOW_MS = 5 * 60_000L;
+    private static final int SAMPLES = 128;
+
+    // A pause longer than this between calls was spent away from the vines
+    private static final long GAP_MS = 3_000;
+
+    private static final int MIN_SEARCHES = 12;
+    private static final double MAX_EMPTY_SHARE = 0.5;
+    private static final double HOP_FRACTION = 0.6;
+    private static final long KNOWN_MS = 2 * 60_000L;
+    private static final long REVISIT_MS = 30 * 60_000L;
+
+    private static final String HEADER = "world,ms,herbs,searches,empty,playerSamples,players";
+
+    private final ScriptLog logger;
+    private final File file;
+    private final Random random = new Random();
+
+    // Per world, indexed by world number
+    private final long[] vineMs = new long[MAX_WORLD];
+    private final int[] herbs = new int[MAX_WORLD];
+    private final int[] searches = new int[MAX_WORLD];
+    private final int[] empties = new int[MAX_WORLD];
+    private final int[] playerSamples = new int[MAX_WORLD];
+    private final long[] players = new long[MAX_WORLD];
+    private final long[] leftAt = new long[MAX_WORLD];
+
+    // Cumulative totals on the current world, one ring entry per sample
+    private final long[] sampleMs = new long[SAMPLES];
+    private final int[] sampleHerbs = new int[SAMPLES];
+    private final int[] sampleSearches = new int[SAMPLES];
+    private final int[] sampleEmpties = new int[SAMPLES];
+    private int head = -1;
+    private int size;
+
+    private int world = -1;
+    private long lastSeen = -1;
+    private long hereMs;
+    private int hereHerbs;
+    private int hereSearches;
+    private int hereEmpties;
+
+    // Best window rate seen on any world this run, herbs per minute
+    private double peak;
+
+    WorldSelector(ScriptLog logger, File dir) {
+        this.logger = logger;
+        this.file = new File(dir, "SnakeweedCollector-worlds.csv");
+    }
+
+    /**
+     * Starts measuring a world, the one the script started on or just hopped to
+     * @param world World number
+     */
+    void arrived(int world) {
+        this.world = inRange(world) ? world : -1;
+        head = -1;
+        size = 0;
+        lastSeen = -1;
+        hereMs = 0;
+        hereHerbs = 0;
+        hereSearches = 0;
+        hereEmpties = 0;
+    }
+
+    /**
+     * @return World being measured, -1 before arrived()
+     */
+    int world() {
+        return world;
+    }
+
+    /**
+     * Counts time at the vines; call on every collecting pass
+     * @param now Current time
+     * @param nearby Other players near the vines, only asked for once per sample
+     */
+    void observe(long now, IntSupplier nearby) {
+        if (world < 0) {
+            return;
+        }
+        if (lastSeen >= 0 && now - lastSeen <= GAP_MS) {
+            long dt = now - lastSeen;
+            hereMs += dt;
+            vineMs[world] += dt;
+        }
+        lastSeen = now;
+        if (size == 0 || hereMs - sampleMs[head] >= SAMPLE_MS) {
+            players[world] += nearby.getAsInt();
+            playerSamples[world]++;
+            head = (head + 1) % SAMPLES;
+            sampleMs[head] = hereMs;
+            sampleHerbs[head] = hereHerbs;
+            sampleSearches[head] = hereSearches;
+            sampleEmpties[head] = hereEmpties;
+            size = Math.min(SAMPLES, size + 1);
+            if (fullWindow()) {
+                peak = Math.max(peak, windowRate());
+            }
+        }
+    }
+
+    /**
+     * Records how a search ended
+     */
+    void searched(boolean herb) {
+        if (world < 0) {
+            return;
+        }
+        hereSearches++;
+        searches[world]++;
+        if (herb) {
+            hereHerbs++;
+            herbs[world]++;
+        } else {
+            hereEmpties++;
+            empties[world]++;
+        }
+    }
+
+    /**
+     * @return true once this world's last window is contested and well below what
+     *         another world should give
+     */
+    boolean shouldHop() {
+        if (!fullWindow()) {
+            return false;
+        }
+        int oldest = oldest();
+        int searched = sampleSearches[head] - sampleSearches[oldest];
+        if (searched < MIN_SEARCHES) {
+            return false;
+        }
+        double emptyShare = (double) (sampleEmpties[head] - sampleEmpties[oldest]) / searched;
+        return emptyShare > MAX_EMPTY_SHARE && windowRate() < HOP_FRACTION * bestKnown(world);
+    }
+
+    /**
+     * Marks the current world as left, so pick() skips it for a while
+     */
+    void left(long now) {
+        if (world >= 0) {
+            leftAt[world] = now;
+        }
+    }
+
+    /**
+     * @param candidates World numbers that may be hopped to
+     * @param count How many of them are filled in
+     * @param now Current time
+     * @return Best world to hop to, -1 if none qualifies
+     */
+    int pick(int[] candidates, int count, long now) {
+        int best = -1;
+        double bestRate = -1;
+        double bestPlayers = Double.MAX_VALUE;
+        int ties = 0;
+        for (int i = 0; i < count; i++) {
+            int w = candidates[i];
+            if (!inRange(w) || w == world || recentlyLeft(w, now)) {
+                continue;
+            }
+            double rate = expected(w);
+            double seen = playerSamples[w] > 0 ? (double) players[w] / playerSamples[w] : 0;
+            if (rate > bestRate || (rate == bestRate && seen < bestPlayers)) {
+                best = w;
+                bestRate = rate;
+                bestPlayers = seen;
+                ties = 1;
+            } else if (rate == bestRate && seen == bestPlayers && random.nextInt(++ties) == 0) {
+                // Spread over equally good worlds rather than always the first listed
+                best = w;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return One line for the paint: this world's window rate and empty share
+     */
+    String summary() {
+        if (world < 0) {
+            return "World: unknown";
+        }
+        int oldest = oldest();
+        int searched = oldest >= 0 ? sampleSearches[head] - sampleSearches[oldest] : 0;
+        int empty = oldest >= 0 ? sampleEmpties[head] - sampleEmpties[oldest] : 0;
+        return String.format("World %d: %.1f herbs/min, %d%% empty", world, windowRate(),
+            searched > 0 ? empty * 100 / searched : 0);
+    }
+
+    /**
+     * Reads the history kept by earlier runs. A missing or unreadable file leaves it empty.
+     */
+    void load() {
+        if (!file.isFile()) {
+            return;
+        }
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length != 7 || line.startsWith("world")) {
+                    continue;
+                }
+                try {
+                    int w = Integer.parseInt(fields[0]);
+                    if (!inRange(w)) {
+                        continue;
+                    }
+                    vineMs[w] = Long.parseLong(fields[1]);
+                    herbs[w] = Integer.parseInt(fields[2]);
+                    searches[w] = Integer.parseInt(fields[3]);
+                    empties[w] = Integer.parseInt(fields[4]);
+                    playerSamples[w] = Integer.parseInt(fields[5]);
+                    players[w] = Long.parseLong(fields[6]);
+                } catch (NumberFormatException e) {
+                    // A damaged line loses that world's history, nothing more
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read world history: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the history for the next run, overwriting the file
+     */
+    void save() {
+        File dir = file.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            return;
+        }
+        StringBuilder out = new StringBuilder(HEADER).append('\n');
+        for (int w = 0; w < MAX_WORLD; w++) {
+            if (vineMs[w] > 0 || searches[w] > 0) {
+                out.append(w).append(',').append(vineMs[w]).append(',').append(herbs[w]).append(',')
+                    .append(searches[w]).append(',').append(empties[w]).append(',')
+                    .append(playerSamples[w]).append(',').append(players[w]).append('\n');
+            }
+        }
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file, false), StandardCharsets.UTF_8)) {
+            writer.write(out.toString());
+        } catch (IOException e) {
+            logger.warn("Could not write world history: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return Herbs per minute expected on a world: its own yield once known, otherwise
+     *         the best rate seen, so unworked worlds get tried
+     */
+    private double expected(int w) {
+        if (vineMs[w] >= KNOWN_MS) {
+            return herbs[w] * 60_000.0 / vineMs[w];
+        }
+        return bestKnown(-1);
+    }
+
+    /**
+     * @return The peak window rate or the best yield of a known world other than the one
+     *         given, whichever is higher
+     */
+    private double bestKnown(int except) {
+        double best = peak;
+        for (int w = 0; w < MAX_WORLD; w++) {
+            if (w != except && vineMs[w] >= KNOWN_MS) {
+                best = Math.max(best, herbs[w] * 60_000.0 / vineMs[w]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return Herbs per minute over the last window of time at the vines
+     */
+    private double windowRate() {
+        int oldest = oldest();
+        if (oldest < 0) {
+            return 0;
+        }
+        long ms = sampleMs[head] - sampleMs[oldest];
+        return ms > 0 ? (sampleHerbs[head] - sampleHerbs[oldest]) * 60_000.0 / ms : 0;
+    }
+
+    /**
+     * @return true once the samples span a whole window
+     */
+    private boolean fullWindow() {
+        int oldest = oldest();
+        return oldest >= 0 && sampleMs[head] - sampleMs[oldest] >= WINDOW_MS;
+    }
+
+    /**
+     * @return Sample the window starts at: the newest one at least WINDOW_MS back, or
+     *         the oldest kept; -1 with fewer than two samples
+     */
+    private int oldest() {
+        if (size < 2) {
+            return -1;
+        }
+        int oldest = head;
+        for (int i = 1; i < size; i++) {
+            oldest = (head - i + SAMPLES) % SAMPLES;
+            if (sampleMs[head] - sampleMs[oldest] >= WINDOW_MS) {
+                break;
+            }
+        }
+        return oldest;
+    }
+
+    private boolean recentlyLeft(int w, long now) {
+        return leftAt[w] > 0 && now - leftAt[w] < REVISIT_MS;
+    }
+
+    private static boolean inRange(int w) {
+        return w > 0 && w < MAX_WORLD;
+    }
+}
@@ -0,0 +1,134 @@
+package org.dreambot.core;
+
+import org.dreambot.core.game.GameApi;
+
+import java.util.Arrays;
+
+/*
+ * BankCache.java
+ *
+ * Item counts of the bank, read once when it opens and kept current from our own
+ * deposits and withdrawals.
+ *
+ * Key functionality:
+ * - Snapshots the whole bank into an open-addressed id -> count table on the first sync
+ *   after it opens, so contains/count never go back to the client while it stays open
+ * - withdrew()/deposited() apply the script's own operations as they are sent
+ * - Keeps answering from what the bank last held after it closes
+ *
+ * Nothing but the script moves items in or out while the bank is open, so the counts
+ * stay exact between opens; the re-read on every open picks up anything else.
+ */
+public final class BankCache {
+    // Comfortably above the most slots a bank can have
+    private static final int MAX_ITEMS = 1536;
+
+    // Power of two at least twice MAX_ITEMS keeps probe chains short
+    private static final int TABLE_SIZE = 4096;
+    private static final int MASK = TABLE_SIZE - 1;
+    private static final int EMPTY = -1;
+
+    private final GameApi api;
+    private final int[] readIds = new int[MAX_ITEMS];
+    private final int[] readAmounts = new int[MAX_ITEMS];
+    private final int[] ids = new int[TABLE_SIZE];
+    private final int[] counts = new int[TABLE_SIZE];
+
+    private boolean open;
+    private boolean loaded;
+
+    /**
+     * @param api Source of the bank contents
+     */
+    public BankCache(GameApi api) {
+        this.api = api;
+        Arrays.fill(ids, EMPTY);
+    }
+
+    /**
+     * Reads the bank if it has opened since the last call
+     * @param bankOpen Whether the bank interface is open now
+     */
+    public void sync(boolean bankOpen) {
+        if (bankOpen && !open) {
+            refresh();
+        }
+        open = bankOpen;
+    }
+
+    /**
+     * @return true once the bank has been read at least once
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @param id Item ID
+     * @return true if the bank holds at least one
+     */
+    public boolean contains(int id) {
+        return count(id) > 0;
+    }
+
+    /**
+     * @param id Item ID
+     * @return Amount in the bank, 0 if none or not read yet
+     */
+    public int count(int id) {
+        int index = find(id);
+        return ids[index] == id ? counts[index] : 0;
+    }
+
+    /**
+     * Applies a withdrawal the script just sent
+     * @param id Item ID
+     * @param amount Amount asked for; the bank can't go below 0
+     */
+    public void withdrew(int id, int amount) {
+        int index = find(id);
+        if (ids[index] == id) {
+            counts[index] = Math.max(0, counts[index] - amount);
+        }
+    }
+
+    /**
+     * Applies a deposit the script just sent
+     * @param id Item ID
+     * @param amount Amount deposited
+     */
+    public void deposited(int id, int amount) {
+        int index = find(id);
+        if (ids[index] != id) {
+            ids[index] = id;
+            counts[index] = 0;
+        }
+        counts[index] += amount;
+    }
+
+    private void refresh() {
+        Arrays.fill(ids, EMPTY);
+        int read = api.readBank(readIds, readAmounts);
+        for (int i = 0; i < read; i++) {
+            deposited(readIds[i], readAmounts[i]);
+        }
+        loaded = true;
+    }
+
+    /**
+     * @return Slot holding the ID, or the empty slot it would go in
+     */
+    private int find(int id) {
+        int index = mix(id) & MASK;
+        while (ids[index] != EMPTY && ids[index] != id) {
+            index = (index + 1) & MASK;
+        }
+        return index;
+    }
+
+    // Item IDs cluster (noted/unnoted pairs, potion doses), so spread them before masking
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
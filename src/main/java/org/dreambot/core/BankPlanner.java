@@ -0,0 +1,200 @@
+package org.dreambot.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * BankPlanner.java
+ *
+ * Turns a target loadout into the fewest bank operations that reach it from what the
+ * inventory holds now.
+ *
+ * Key functionality:
+ * - The loadout is built with item() and use() in the order things should happen, and
+ *   cleared and rebuilt without allocating
+ * - Anything held beyond the loadout goes back first: one deposit-all-except when several
+ *   kinds have to go and at most one stays, one deposit-all per kind otherwise
+ * - Then in loadout order, each item's shortfall in a single withdraw and the item
+ *   actions that draw on the open bank (filling a coal bag)
+ * - Items already held in the right amount are left alone
+ *
+ * plan() only reads the inventory, so an item action is only planned once the inventory
+ * already holds its item; one whose item is still to be withdrawn waits for the next
+ * plan. None of the other actions needs to see the one before land, so the caller can
+ * send a batch back-to-back, wait once for holdsItems() and plan again until
+ * satisfiedBy().
+ */
+public final class BankPlanner {
+    private static final int MAX_ENTRIES = 16;
+
+    public enum Kind {
+        DEPOSIT_ALL,          // id: item to deposit, amount: held
+        DEPOSIT_ALL_EXCEPT,   // id: the one item kept
+        WITHDRAW,             // id and amount to withdraw
+        USE                   // inventory action on id, e.g. "Fill"
+    }
+
+    /**
+     * One bank operation
+     */
+    public static final class Action {
+        public final Kind kind;
+        public final int id;
+        public final int amount;
+        public final String use;
+
+        Action(Kind kind, int id, int amount, String use) {
+            this.kind = kind;
+            this.id = id;
+            this.amount = amount;
+            this.use = use;
+        }
+
+        @Override
+        public String toString() {
+            return kind == Kind.USE ? use + " " + id : kind + " " + id + (kind == Kind.WITHDRAW ? " x" + amount : "");
+        }
+    }
+
+    // Loadout entries in order; a null use marks an item entry
+    private final int[] entryIds = new int[MAX_ENTRIES];
+    private final int[] entryAmounts = new int[MAX_ENTRIES];
+    private final String[] entryUses = new String[MAX_ENTRIES];
+    private int entries;
+
+    private final int[] held = new int[28];
+
+    /**
+     * Starts a new loadout
+     * @return this
+     */
+    public BankPlanner clear() {
+        entries = 0;
+        return this;
+    }
+
+    /**
+     * Holds exactly this many of the item; 0 means none
+     * @return this
+     */
+    public BankPlanner item(int id, int amount) {
+        return entry(id, amount, null);
+    }
+
+    /**
+     * Sends an inventory action on the item once it is held, e.g. "Fill" on a coal bag;
+     * planned no earlier than the first plan() that sees the item in the inventory
+     * @return this
+     */
+    public BankPlanner use(int id, String action) {
+        return entry(id, 0, action);
+    }
+
+    /**
+     * @param inventory Inventory as it is now
+     * @return Bank operations in the order to send them, empty if the items already match
+     *         and no use() on a held item is pending
+     */
+    public List<Action> plan(InventorySnapshot inventory) {
+        List<Action> actions = new ArrayList<>();
+
+        // Everything held beyond its target goes back; an item held short is topped up
+        int heldIds = inventory.heldIds(held);
+        int deposits = 0;
+        int kept = -1;
+        int keptKinds = 0;
+        for (int i = 0; i < heldIds; i++) {
+            if (inventory.count(held[i]) > target(held[i])) {
+                deposits++;
+            } else {
+                kept = held[i];
+                keptKinds++;
+            }
+        }
+        if (deposits > 1 && keptKinds <= 1) {
+            // With nothing to keep, an ID no item has empties the inventory
+            actions.add(new Action(Kind.DEPOSIT_ALL_EXCEPT, kept, 0, null));
+        } else if (deposits > 0) {
+            for (int i = 0; i < heldIds; i++) {
+                int count = inventory.count(held[i]);
+                if (count > target(held[i])) {
+                    actions.add(new Action(Kind.DEPOSIT_ALL, held[i], count, null));
+                }
+            }
+        }
+
+        for (int i = 0; i < entries; i++) {
+            int id = entryIds[i];
+            if (entryUses[i] != null) {
+                // Sent before a withdraw of the item lands, the action would miss it
+                if (inventory.contains(id)) {
+                    actions.add(new Action(Kind.USE, id, 0, entryUses[i]));
+                }
+                continue;
+            }
+            int count = inventory.count(id);
+            int have = count > entryAmounts[i] ? 0 : count;
+            if (entryAmounts[i] > have) {
+                actions.add(new Action(Kind.WITHDRAW, id, entryAmounts[i] - have, null));
+            }
+        }
+        return actions;
+    }
+
+    /**
+     * @param inventory Inventory as it is now
+     * @return true if it holds exactly the loadout's items and no use() is pending; a
+     *         use() can't be seen, so the caller leaves it out once it has been sent
+     */
+    public boolean satisfiedBy(InventorySnapshot inventory) {
+        for (int i = 0; i < entries; i++) {
+            if (entryUses[i] != null) {
+                return false;
+            }
+        }
+        return holdsItems(inventory);
+    }
+
+    /**
+     * @param inventory Inventory as it is now
+     * @return true if it holds exactly the loadout's items, whatever use() is pending;
+     *         what a batch waits for before the next plan
+     */
+    public boolean holdsItems(InventorySnapshot inventory) {
+        int heldIds = inventory.heldIds(held);
+        for (int i = 0; i < heldIds; i++) {
+            if (inventory.count(held[i]) != target(held[i])) {
+                return false;
+            }
+        }
+        for (int i = 0; i < entries; i++) {
+            if (entryUses[i] == null && inventory.count(entryIds[i]) != entryAmounts[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private BankPlanner entry(int id, int amount, String use) {
+        if (entries == MAX_ENTRIES) {
+            throw new IllegalStateException("Loadout has more than " + MAX_ENTRIES + " entries");
+        }
+        entryIds[entries] = id;
+        entryAmounts[entries] = amount;
+        entryUses[entries] = use;
+        entries++;
+        return this;
+    }
+
+    /**
+     * @return Amount of the item the loadout holds, 0 if it isn't listed
+     */
+    private int target(int id) {
+        for (int i = 0; i < entries; i++) {
+            if (entryUses[i] == null && entryIds[i] == id) {
+                return entryAmounts[i];
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,18 @@
+package org.dreambot.core;
+
+/*
+ * Clock.java
+ *
+ * Source of "now" for everything that schedules or times out across loops.
+ *
+ * Live scripts use SYSTEM. The offline simulator supplies its own virtual clock so the
+ * same decision code can run many simulated hours in a few seconds of wall time.
+ */
+public interface Clock {
+    Clock SYSTEM = System::currentTimeMillis;
+
+    /**
+     * @return Current time in milliseconds
+     */
+    long now();
+}
@@ -0,0 +1,67 @@
+package org.dreambot.core;
+
+/*
+ * Deadline.java
+ *
+ * A timeout that lives across onLoop() calls.
+ *
+ * Multi-loop steps (walk until the conveyor is reachable, keep depositing for up to
+ * 8 seconds) arm a Deadline on their first loop and check it on every later one, instead
+ * of spinning in a while loop on the script thread. Clearing it when the step finishes
+ * lets the next attempt arm a fresh one.
+ */
+public final class Deadline {
+    private final Clock clock;
+
+    private long expiresAt;
+    private boolean armed;
+
+    /**
+     * @param clock Time source, normally the script's TickClock
+     */
+    public Deadline(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Starts the deadline unless it is already running
+     * @param timeoutMs Time allowed from now
+     * @return true if this call armed it, i.e. this is the first loop of the step
+     */
+    public boolean arm(long timeoutMs) {
+        if (armed) {
+            return false;
+        }
+        expiresAt = clock.now() + timeoutMs;
+        armed = true;
+        return true;
+    }
+
+    /**
+     * Stops the deadline so the next arm() starts a new one
+     */
+    public void clear() {
+        armed = false;
+    }
+
+    /**
+     * @return true if the deadline is running
+     */
+    public boolean isArmed() {
+        return armed;
+    }
+
+    /**
+     * @return true if the deadline is running and has passed
+     */
+    public boolean hasExpired() {
+        return armed && clock.now() >= expiresAt;
+    }
+
+    /**
+     * @return Milliseconds left, 0 once expired or when not armed
+     */
+    public long remaining() {
+        return armed ? Math.max(0, expiresAt - clock.now()) : 0;
+    }
+}
@@ -0,0 +1,160 @@
+package org.dreambot.core;
+
+import org.dreambot.core.game.GameApi;
+
+import java.util.Arrays;
+
+/*
+ * InventorySnapshot.java
+ *
+ * One read of the inventory per server tick, queried as many times as the loop likes.
+ *
+ * Key functionality:
+ * - Scans the inventory once per tick into an open-addressed id -> count table
+ * - Answers contains/count/empty-slot questions without boxing or predicate lambdas
+ * - Gives every decision inside one loop the same consistent view of the inventory
+ *
+ * The inventory can only change when the client applies a tick, so a snapshot stays valid
+ * until TickScheduler.DEFAULT_OFFSET into the next tick, the same point the scheduler
+ * wakes parked conditions. Lambdas handed to the scheduler or Sleep.sleepUntil can
+ * therefore query the snapshot freely; it re-reads the client on its own once stale.
+ */
+public final class InventorySnapshot {
+    private static final int SLOTS = 28;
+
+    // Power of two comfortably above the slot count keeps probe chains short
+    private static final int TABLE_SIZE = 64;
+    private static final int MASK = TABLE_SIZE - 1;
+    private static final int EMPTY = -1;
+
+    private final TickClock clock;
+    private final GameApi api;
+    private final int[] slotIds = new int[SLOTS];
+    private final int[] slotAmounts = new int[SLOTS];
+    private final int[] ids = new int[TABLE_SIZE];
+    private final int[] counts = new int[TABLE_SIZE];
+
+    private int usedSlots;
+    private long takenInTick = Long.MIN_VALUE;
+    private boolean stale = true;
+
+    /**
+     * @param clock Tick clock deciding when the snapshot goes stale
+     * @param api Source of the inventory contents
+     */
+    public InventorySnapshot(TickClock clock, GameApi api) {
+        this.clock = clock;
+        this.api = api;
+        Arrays.fill(ids, EMPTY);
+    }
+
+    /**
+     * Forces the next query to re-read the client, e.g. after a blocking wait that must
+     * see an update the tick estimate has not caught up with yet
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * @param id Item ID
+     * @return true if at least one of the item is held
+     */
+    public boolean contains(int id) {
+        return count(id) > 0;
+    }
+
+    /**
+     * @return true if either item is held
+     */
+    public boolean containsAny(int first, int second) {
+        return count(first) > 0 || count(second) > 0;
+    }
+
+    /**
+     * @param id Item ID
+     * @return Total amount held, summing stacks
+     */
+    public int count(int id) {
+        sync();
+        return lookup(id);
+    }
+
+    /**
+     * Copies the distinct item IDs held
+     * @param out Receives the IDs, at least 28 long
+     * @return Number of IDs written
+     */
+    public int heldIds(int[] out) {
+        sync();
+        int held = 0;
+        for (int id : ids) {
+            if (id != EMPTY) {
+                out[held++] = id;
+            }
+        }
+        return held;
+    }
+
+    /**
+     * @return Number of empty inventory slots
+     */
+    public int emptySlots() {
+        sync();
+        return SLOTS - usedSlots;
+    }
+
+    /**
+     * @return true if every slot is used
+     */
+    public boolean isFull() {
+        return emptySlots() == 0;
+    }
+
+    private void sync() {
+        long tick = clock.tickStart(clock.now() - TickScheduler.DEFAULT_OFFSET);
+        if (stale || tick != takenInTick) {
+            refresh();
+            takenInTick = tick;
+            stale = false;
+        }
+    }
+
+    private void refresh() {
+        Arrays.fill(ids, EMPTY);
+
+        usedSlots = api.readInventory(slotIds, slotAmounts);
+        for (int i = 0; i < usedSlots; i++) {
+            add(slotIds[i], slotAmounts[i]);
+        }
+    }
+
+    private void add(int id, int amount) {
+        int index = mix(id) & MASK;
+        while (ids[index] != EMPTY && ids[index] != id) {
+            index = (index + 1) & MASK;
+        }
+        if (ids[index] == EMPTY) {
+            ids[index] = id;
+            counts[index] = 0;
+        }
+        counts[index] += amount;
+    }
+
+    private int lookup(int id) {
+        int index = mix(id) & MASK;
+        while (ids[index] != EMPTY) {
+            if (ids[index] == id) {
+                return counts[index];
+            }
+            index = (index + 1) & MASK;
+        }
+        return 0;
+    }
+
+    // Item IDs cluster (noted/unnoted pairs, potion doses), so spread them before masking
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
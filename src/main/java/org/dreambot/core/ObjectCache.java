@@ -0,0 +1,105 @@
+package org.dreambot.core;
+
+import org.dreambot.api.methods.interactive.GameObjects;
+import org.dreambot.api.methods.interactive.Players;
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.api.wrappers.interactive.GameObject;
+import org.dreambot.api.wrappers.interactive.Player;
+
+/*
+ * ObjectCache.java
+ *
+ * Holds handles to static scenery (conveyor belts, dispensers, bank chests) so they are
+ * resolved once instead of by a name scan over every loaded object on each loop.
+ *
+ * Key functionality:
+ * - Resolves each registered object ID once with an ID lookup
+ * - Revalidates a cached handle with exists() at most once per tick
+ * - Drops every handle when the local player changes map region, since the client
+ *   reloads the scene and the old wrappers no longer point at anything
+ *
+ * Only meant for a handful of objects that never move; it is a linear table, not a map.
+ */
+public final class ObjectCache {
+    private static final int MAX_ENTRIES = 8;
+
+    private final TickClock clock;
+    private final int[] ids = new int[MAX_ENTRIES];
+    private final GameObject[] objects = new GameObject[MAX_ENTRIES];
+    private final long[] validatedInTick = new long[MAX_ENTRIES];
+    private int size;
+
+    private int region = -1;
+    private long regionCheckedInTick = Long.MIN_VALUE;
+
+    public ObjectCache(TickClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached handle for a static object, resolving it if needed
+     * @param id Game object ID
+     * @return The object, or null if it is not loaded
+     */
+    public GameObject get(int id) {
+        long tick = clock.tickIndex();
+        checkRegion(tick);
+
+        int index = indexOf(id);
+        if (index < 0) {
+            if (size == MAX_ENTRIES) {
+                return GameObjects.closest(id);
+            }
+            index = size++;
+            ids[index] = id;
+            validatedInTick[index] = Long.MIN_VALUE;
+        }
+
+        GameObject object = objects[index];
+        if (object != null && validatedInTick[index] == tick) {
+            return object;
+        }
+        if (object == null || !object.exists()) {
+            object = GameObjects.closest(id);
+            objects[index] = object;
+        }
+        validatedInTick[index] = tick;
+        return object;
+    }
+
+    /**
+     * Drops every cached handle, forcing fresh lookups
+     */
+    public void invalidate() {
+        for (int i = 0; i < size; i++) {
+            objects[i] = null;
+        }
+    }
+
+    private void checkRegion(long tick) {
+        if (tick == regionCheckedInTick) {
+            return;
+        }
+        regionCheckedInTick = tick;
+
+        Player local = Players.getLocal();
+        Tile tile = local != null ? local.getTile() : null;
+        if (tile == null) {
+            return;
+        }
+        int current = ((tile.getX() >> 6) << 8) | (tile.getY() >> 6);
+        if (current != region) {
+            region = current;
+            invalidate();
+        }
+    }
+
+    private int indexOf(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,165 @@
+package org.dreambot.core;
+
+import org.dreambot.api.methods.interactive.Players;
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.api.methods.walking.impl.Walking;
+import org.dreambot.api.wrappers.interactive.Player;
+
+/*
+ * TickClock.java
+ *
+ * Estimates the phase of the 600 ms server tick from the client side.
+ *
+ * Key functionality:
+ * - Watches values the server only changes on a tick boundary (local player tile,
+ *   animation and run energy) and treats the first loop that sees a change as a boundary
+ * - Keeps an anchor timestamp on a known boundary and extrapolates in 600 ms steps
+ *   while the player is idle and nothing observable changes
+ * - Answers "when did the current tick start" and "when does the next one start"
+ *
+ * update() must be called once at the top of every onLoop(); the query methods are
+ * plain arithmetic and never touch the client. The clock also serves as the time source
+ * for the scheduler, snapshots and deadlines built on it, which is how the simulator
+ * swaps in virtual time.
+ */
+public final class TickClock implements Clock {
+    public static final int TICK_MS = 600;
+
+    // A change seen after a long gap only tells us a boundary happened somewhere inside
+    // that gap, which is too vague to re-anchor on
+    private static final long MAX_BRACKET_MS = 150;
+
+    private final Clock time;
+
+    private long anchor;
+    private long lastSample;
+    private long lastTickIndex;
+    private boolean started;
+
+    private int lastX;
+    private int lastY;
+    private int lastAnimation;
+    private int lastEnergy;
+
+    public TickClock() {
+        this(Clock.SYSTEM);
+    }
+
+    /**
+     * @param time Time source, Clock.SYSTEM outside the simulator
+     */
+    public TickClock(Clock time) {
+        this.time = time;
+    }
+
+    @Override
+    public long now() {
+        return time.now();
+    }
+
+    /**
+     * Samples the client and re-anchors the tick phase if a boundary was observed
+     */
+    public void update() {
+        update(now());
+    }
+
+    /**
+     * Samples the client at the given time and re-anchors the tick phase if a boundary
+     * was observed since the previous sample
+     * @param now Current time in milliseconds
+     */
+    public void update(long now) {
+        Player local = Players.getLocal();
+        if (local == null) {
+            lastSample = now;
+            return;
+        }
+
+        Tile tile = local.getTile();
+        update(now, tile != null ? tile.getX() : 0, tile != null ? tile.getY() : 0,
+            local.getAnimation(), Walking.getRunEnergy());
+    }
+
+    /**
+     * Feeds one sample of the tick-driven values into the phase estimate. Used directly
+     * by the simulator, which has no client to read them from.
+     * @param now Time of the sample in milliseconds
+     * @param x Local player tile x
+     * @param y Local player tile y
+     * @param animation Local player animation
+     * @param energy Run energy
+     */
+    public void update(long now, int x, int y, int animation, int energy) {
+        if (!started) {
+            anchor = now;
+            started = true;
+        } else if (x != lastX || y != lastY || animation != lastAnimation || energy != lastEnergy) {
+            observeBoundary(lastSample, now);
+        }
+
+        lastX = x;
+        lastY = y;
+        lastAnimation = animation;
+        lastEnergy = energy;
+        lastSample = now;
+    }
+
+    /**
+     * Feeds a boundary known to lie between two sample times into the phase estimate
+     * @param after Time of the last sample that did not see the change
+     * @param seen Time of the sample that saw the change
+     */
+    void observeBoundary(long after, long seen) {
+        long gap = seen - after;
+        if (gap <= 0 || gap > MAX_BRACKET_MS) {
+            return;
+        }
+
+        // Split the bracket and move the anchor half way towards it, so a single late
+        // sample (GC pause, slow client read) can't drag every later schedule with it
+        long observed = seen - gap / 2;
+        long error = Math.floorMod(observed - anchor, (long) TICK_MS);
+        if (error >= TICK_MS / 2) {
+            error -= TICK_MS;
+        }
+        anchor += error / 2;
+    }
+
+    /**
+     * @param now Current time in milliseconds
+     * @return Estimated start time of the tick containing now
+     */
+    public long tickStart(long now) {
+        return anchor + Math.floorDiv(now - anchor, (long) TICK_MS) * TICK_MS;
+    }
+
+    /**
+     * @param now Current time in milliseconds
+     * @return Estimated start time of the tick after the one containing now
+     */
+    public long nextTickStart(long now) {
+        return tickStart(now) + TICK_MS;
+    }
+
+    /**
+     * Index of the current tick, used to tell whether two reads happened in the same tick.
+     * Never goes backwards even when the anchor is nudged.
+     * @return Monotonic tick counter
+     */
+    public long tickIndex() {
+        return tickIndex(now());
+    }
+
+    /**
+     * @param now Current time in milliseconds
+     * @return Monotonic tick counter for the given time
+     */
+    public long tickIndex(long now) {
+        long index = Math.floorDiv(now - anchor, (long) TICK_MS);
+        if (index > lastTickIndex) {
+            lastTickIndex = index;
+        }
+        return lastTickIndex;
+    }
+}
@@ -0,0 +1,207 @@
+package org.dreambot.core;
+
+import org.dreambot.core.event.EventBus;
+import org.dreambot.core.event.EventFilter;
+
+import java.util.function.BooleanSupplier;
+
+/*
+ * TickScheduler.java
+ *
+ * Turns "when should the next onLoop() run" into delays aligned to the server tick.
+ *
+ * Handlers return one of:
+ * - nextTick()            after issuing an action, the next decision belongs to the next tick
+ * - afterTickStart(ms)    run a fixed offset into the next tick window
+ * - reevaluate()          a state transition with no action, run again straight away
+ * - until(cond, timeout)  park the loop until cond is true or the timeout passes
+ * - untilEvent(filter, cond, timeout)  park until a matching event arrives, cond holds
+ *                         or the timeout passes
+ * - await(wait[, timeout])  park on a Wait's success, failure and stall signals; the
+ *                         Wait reports which one fired. A Wait's meanwhile() work
+ *                         runs first, and is checked straight after if it overran
+ *                         the first check
+ *
+ * While parked, the script's onLoop() returns pollDelay() without running any handler.
+ * The condition is re-checked just after each predicted tick start, since that is when
+ * the client applies the tick's updates and nothing it reads can change in between.
+ * An event wait also blocks in pollDelay() on the EventBus, so it ends as soon as the
+ * client reports the change rather than at the next predicted tick; the condition stays
+ * as a fallback in case the listener never fires.
+ */
+public final class TickScheduler {
+    // Input sent exactly on the predicted boundary can land in the previous tick when the
+    // estimate runs slightly early; this margin keeps it inside the intended one
+    public static final int DEFAULT_OFFSET = 50;
+
+    // Delay for handlers that only changed state and want to act in the same tick
+    private static final int REEVALUATE_MS = 20;
+
+    private final TickClock clock;
+    private final EventBus events;
+
+    private BooleanSupplier condition;
+    private long deadline;
+
+    // Set only while parked by untilEvent()
+    private EventFilter filter;
+    private long since;
+
+    // Set only while parked by await()
+    private Wait active;
+
+    public TickScheduler(TickClock clock) {
+        this(clock, null);
+    }
+
+    /**
+     * @param clock Tick clock the delays are aligned to
+     * @param events Bus for untilEvent(), null if the script never waits on events
+     */
+    public TickScheduler(TickClock clock, EventBus events) {
+        this.clock = clock;
+        this.events = events;
+    }
+
+    /**
+     * @return Delay until just after the next tick starts
+     */
+    public int nextTick() {
+        long now = clock.now();
+        return (int) (clock.nextTickStart(now) + DEFAULT_OFFSET - now);
+    }
+
+    /**
+     * Delay until the first moment that is offsetMs after a tick start and not in the past
+     * @param offsetMs Offset into the tick, 0 to 599
+     * @return Delay in milliseconds
+     */
+    public int afterTickStart(int offsetMs) {
+        long now = clock.now();
+        long at = clock.tickStart(now) + offsetMs;
+        if (at <= now) {
+            at += TickClock.TICK_MS;
+        }
+        return (int) (at - now);
+    }
+
+    /**
+     * @return Short delay for a transition that should be acted on in the same tick
+     */
+    public int reevaluate() {
+        return REEVALUATE_MS;
+    }
+
+    /**
+     * Parks the loop until the condition holds or the timeout passes
+     * @param condition Condition to wait for
+     * @param timeoutMs Maximum wait in milliseconds
+     * @return Delay before the first re-check
+     */
+    public int until(BooleanSupplier condition, long timeoutMs) {
+        return park(condition, timeoutMs);
+    }
+
+    /**
+     * Parks the loop until an event matching the filter is posted, the condition holds,
+     * or the timeout passes
+     * @param filter Events that end the wait
+     * @param condition Polled fallback, e.g. the state the event should produce
+     * @param timeoutMs Maximum wait in milliseconds
+     * @return Delay before the next pass
+     */
+    public int untilEvent(EventFilter filter, BooleanSupplier condition, long timeoutMs) {
+        this.since = events.sequence();
+        this.filter = filter;
+        return park(condition, timeoutMs);
+    }
+
+    /**
+     * Parks the loop on a composite wait until one of its signals fires or the timeout
+     * passes; wait.outcome() says which on the next pass
+     * @param wait Wait to park on
+     * @param timeoutMs Maximum wait in milliseconds
+     * @return Delay before the next pass
+     */
+    public int await(Wait wait, long timeoutMs) {
+        return park(wait, timeoutMs);
+    }
+
+    /**
+     * Parks the loop on a composite wait for its own timeoutMs()
+     * @param wait Wait to park on
+     * @return Delay before the next pass
+     */
+    public int await(Wait wait) {
+        return park(wait, wait.timeoutMs());
+    }
+
+    private int park(Wait wait, long timeoutMs) {
+        cancel();
+        long now = clock.now();
+        long firstCheck = now + afterTickStart(DEFAULT_OFFSET);
+        wait.start(now, events != null ? events.sequence() : 0);
+        this.active = wait;
+        this.deadline = now + timeoutMs;
+        // Its meanwhile() work must not push the first check back a tick
+        return clock.now() < firstCheck ? pollDelay() : 0;
+    }
+
+    private int park(BooleanSupplier condition, long timeoutMs) {
+        this.condition = condition;
+        this.deadline = clock.now() + timeoutMs;
+        return pollDelay();
+    }
+
+    /**
+     * Checks the parked condition, clearing it once it fires or times out
+     * @return true if onLoop() should skip its handlers this iteration
+     */
+    public boolean isWaiting() {
+        if (active != null) {
+            if (active.check(clock, events, deadline) == Wait.Outcome.PENDING) {
+                return true;
+            }
+            active = null;
+            return false;
+        }
+        if (condition == null) {
+            return false;
+        }
+        if ((filter != null && events.matchedSince(since, filter))
+                || condition.getAsBoolean() || clock.now() >= deadline) {
+            cancel();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drops any parked condition, e.g. when the script resets its state
+     */
+    public void cancel() {
+        condition = null;
+        filter = null;
+        active = null;
+    }
+
+    /**
+     * For an event wait on a blocking bus, blocks until the event or the next check is
+     * due, then asks for an immediate pass
+     * @return Delay until the parked condition should be checked again
+     */
+    public int pollDelay() {
+        long untilDeadline = Math.max(1, deadline - clock.now());
+        int delay = (int) Math.min(afterTickStart(DEFAULT_OFFSET), untilDeadline);
+        EventFilter wake = active != null ? active.wakeFilter() : filter;
+        long from = active != null ? active.since() : since;
+        if (wake == null || events == null) {
+            return delay;
+        }
+        if (events.await(from, wake, delay) || events.isBlocking()) {
+            // Either the event arrived or the block already used up the delay
+            return 0;
+        }
+        return delay;
+    }
+}
@@ -0,0 +1,58 @@
+package org.dreambot.core;
+
+import org.dreambot.core.metrics.LatencyHistogram;
+
+/*
+ * TimeoutPolicy.java
+ *
+ * Picks a Wait's timeout from how long that wait has actually taken to succeed.
+ *
+ * Key functionality:
+ * - Until a wait has enough successes, its hand-tuned default applies
+ * - After that the timeout is a percentile of its success durations plus a margin, never
+ *   below a floor, so it tightens on a healthy world and stretches on a laggy one
+ * - Each consecutive timeout doubles the next one (up to MAX_BACKOFF_STEPS doublings), so
+ *   a world that just got slower is not mistaken for a run of misclicks
+ */
+public final class TimeoutPolicy {
+    // 99th percentile of successes plus a tick, after 20 successes, never under two ticks
+    public static final TimeoutPolicy DEFAULT =
+        new TimeoutPolicy(0.99, TickClock.TICK_MS, 20, 2 * TickClock.TICK_MS);
+
+    private static final int MAX_BACKOFF_STEPS = 3;
+
+    private final double percentile;
+    private final long marginMs;
+    private final int minSamples;
+    private final long floorMs;
+
+    /**
+     * @param percentile Share of success durations to cover, a fraction between 0 and 1
+     *                   as LatencyHistogram takes it, e.g. 0.99
+     * @param marginMs Added on top of the percentile
+     * @param minSamples Successes needed before the default is replaced
+     * @param floorMs Shortest timeout ever returned
+     */
+    public TimeoutPolicy(double percentile, long marginMs, int minSamples, long floorMs) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile is a fraction between 0 and 1, got " + percentile);
+        }
+        this.percentile = percentile;
+        this.marginMs = marginMs;
+        this.minSamples = minSamples;
+        this.floorMs = floorMs;
+    }
+
+    /**
+     * @param wait Wait about to be parked
+     * @param defaultMs Hand-tuned timeout for the wait
+     * @return Timeout in milliseconds
+     */
+    public long timeoutFor(Wait wait, long defaultMs) {
+        LatencyHistogram succeeded = wait.durations(Wait.Outcome.SUCCEEDED);
+        long base = succeeded.count() < minSamples
+            ? defaultMs
+            : Math.max(floorMs, succeeded.percentile(percentile) + marginMs);
+        return base << Math.min(wait.consecutiveTimeouts(), MAX_BACKOFF_STEPS);
+    }
+}
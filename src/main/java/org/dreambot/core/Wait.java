@@ -0,0 +1,264 @@
+package org.dreambot.core;
+
+import org.dreambot.core.event.EventBus;
+import org.dreambot.core.event.EventFilter;
+import org.dreambot.core.metrics.LatencyHistogram;
+
+import java.util.function.BooleanSupplier;
+
+/*
+ * Wait.java
+ *
+ * A named wait after an interaction that ends on whichever signal comes first: success,
+ * an explicit failure, the player stalling, or the timeout.
+ *
+ * Key functionality:
+ * - Success is an event (e.g. bars arrived) and/or a polled condition (e.g. dialogue open)
+ * - Failure is an event (e.g. a "no bars" game message); stalling is a condition that
+ *   has to hold on N consecutive ticks (e.g. idle with no dialogue), so a misclick ends
+ *   the wait after a tick or two instead of running out the timeout
+ * - outcome() tells the next pass which signal fired
+ * - Keeps a duration histogram per outcome for the paint, logs and the simulator
+ * - timeoutMs() is the hand-tuned default, or what a TimeoutPolicy makes of this wait's
+ *   own success durations
+ * - meanwhile() work runs as each park starts, while the interaction plays out, e.g.
+ *   hovering what the next pass clicks so that click goes out the moment the wait ends
+ *
+ * Built once per call site as a field, configured with the fluent setters, and parked
+ * with TickScheduler.await(). Only the script thread touches it.
+ */
+public final class Wait {
+    public enum Outcome {
+        PENDING,     // Never parked, or still waiting
+        SUCCEEDED,   // Success event or condition
+        FAILED,      // Failure event
+        STALLED,     // Stall condition held for the configured ticks
+        TIMED_OUT
+    }
+
+    private static final Outcome[] FINISHED = {Outcome.SUCCEEDED, Outcome.FAILED, Outcome.STALLED, Outcome.TIMED_OUT};
+
+    private final String name;
+    private EventFilter successEvent;
+    private BooleanSupplier successCondition;
+    private EventFilter failureEvent;
+    private BooleanSupplier stallCondition;
+    private int stallTicks;
+    private EventFilter wakeFilter;
+    private long defaultTimeoutMs = 5000;
+    private TimeoutPolicy policy;
+    private Runnable meanwhile;
+
+    // Duration by outcome, indexed by Outcome.ordinal()
+    private final LatencyHistogram[] durations = new LatencyHistogram[Outcome.values().length];
+
+    // Per park
+    private Outcome outcome = Outcome.PENDING;
+    private long startedAt;
+    private long since;
+    private long lastTick;
+    private int stalledFor;
+    private int consecutiveTimeouts;
+
+    /**
+     * @param name Name for summaries and logs
+     */
+    public Wait(String name) {
+        this.name = name;
+        for (Outcome finished : FINISHED) {
+            durations[finished.ordinal()] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * @param filter Event meaning the interaction worked
+     * @return This wait, for chaining
+     */
+    public Wait succeedOn(EventFilter filter) {
+        this.successEvent = filter;
+        this.wakeFilter = null;
+        return this;
+    }
+
+    /**
+     * @param condition Polled condition meaning the interaction worked
+     * @return This wait, for chaining
+     */
+    public Wait succeedWhen(BooleanSupplier condition) {
+        this.successCondition = condition;
+        return this;
+    }
+
+    /**
+     * @param filter Event meaning the interaction failed
+     * @return This wait, for chaining
+     */
+    public Wait failOn(EventFilter filter) {
+        this.failureEvent = filter;
+        this.wakeFilter = null;
+        return this;
+    }
+
+    /**
+     * @param condition Condition meaning nothing is happening, e.g. idle with no dialogue
+     * @param ticks Consecutive ticks it must hold before the wait gives up
+     * @return This wait, for chaining
+     */
+    public Wait stallWhen(BooleanSupplier condition, int ticks) {
+        this.stallCondition = condition;
+        this.stallTicks = ticks;
+        return this;
+    }
+
+    /**
+     * @param action Run once per park, right after it starts
+     * @return This wait, for chaining
+     */
+    public Wait meanwhile(Runnable action) {
+        this.meanwhile = action;
+        return this;
+    }
+
+    /**
+     * @param defaultMs Timeout used without a policy, or until the policy has data
+     * @return This wait, for chaining
+     */
+    public Wait timeout(long defaultMs) {
+        this.defaultTimeoutMs = defaultMs;
+        return this;
+    }
+
+    /**
+     * @param policy Policy deriving the timeout from observed durations
+     * @param defaultMs Timeout until the policy has enough data
+     * @return This wait, for chaining
+     */
+    public Wait timeout(TimeoutPolicy policy, long defaultMs) {
+        this.policy = policy;
+        this.defaultTimeoutMs = defaultMs;
+        return this;
+    }
+
+    /**
+     * @return Timeout for the next park in milliseconds
+     */
+    public long timeoutMs() {
+        return policy != null ? policy.timeoutFor(this, defaultTimeoutMs) : defaultTimeoutMs;
+    }
+
+    /**
+     * @return Parks in a row that ended in TIMED_OUT
+     */
+    public int consecutiveTimeouts() {
+        return consecutiveTimeouts;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return How the last park ended, PENDING while parked or before the first
+     */
+    public Outcome outcome() {
+        return outcome;
+    }
+
+    /**
+     * @return true if the last park ended in success
+     */
+    public boolean succeeded() {
+        return outcome == Outcome.SUCCEEDED;
+    }
+
+    /**
+     * @param outcome Finished outcome
+     * @return Durations of parks that ended that way, in milliseconds
+     */
+    public LatencyHistogram durations(Outcome outcome) {
+        return durations[outcome.ordinal()];
+    }
+
+    /**
+     * @return One line with counts and p50 durations per outcome
+     */
+    public String summary() {
+        StringBuilder line = new StringBuilder(name).append(':');
+        for (Outcome finished : FINISHED) {
+            LatencyHistogram histogram = durations[finished.ordinal()];
+            line.append(' ').append(finished.name().toLowerCase()).append(' ').append(histogram.count());
+            if (histogram.count() > 0) {
+                line.append(" (p50 ").append(histogram.percentile(0.50)).append("ms)");
+            }
+        }
+        return line.append(", next timeout ").append(timeoutMs()).append("ms").toString();
+    }
+
+    // Driven by TickScheduler
+
+    void start(long now, long eventSequence) {
+        outcome = Outcome.PENDING;
+        startedAt = now;
+        since = eventSequence;
+        lastTick = Long.MIN_VALUE;
+        stalledFor = 0;
+        if (meanwhile != null) {
+            meanwhile.run();
+        }
+    }
+
+    /**
+     * @return Filter for any event that can end the wait, null if it has none
+     */
+    EventFilter wakeFilter() {
+        if (wakeFilter == null && (successEvent != null || failureEvent != null)) {
+            if (successEvent == null) {
+                wakeFilter = failureEvent;
+            } else {
+                wakeFilter = failureEvent == null ? successEvent : successEvent.or(failureEvent);
+            }
+        }
+        return wakeFilter;
+    }
+
+    long since() {
+        return since;
+    }
+
+    /**
+     * Checks every signal once, success first, and records the duration when one fires
+     * @return The outcome, PENDING if the wait goes on
+     */
+    Outcome check(TickClock clock, EventBus events, long deadline) {
+        long now = clock.now();
+        if ((successEvent != null && events != null && events.matchedSince(since, successEvent))
+                || (successCondition != null && successCondition.getAsBoolean())) {
+            return finish(Outcome.SUCCEEDED, now);
+        }
+        if (failureEvent != null && events != null && events.matchedSince(since, failureEvent)) {
+            return finish(Outcome.FAILED, now);
+        }
+        if (stallCondition != null) {
+            // Event wake-ups can poll several times per tick; count each tick once
+            long tick = clock.tickStart(now - TickScheduler.DEFAULT_OFFSET);
+            if (tick != lastTick) {
+                lastTick = tick;
+                stalledFor = stallCondition.getAsBoolean() ? stalledFor + 1 : 0;
+                if (stalledFor >= stallTicks) {
+                    return finish(Outcome.STALLED, now);
+                }
+            }
+        }
+        if (now >= deadline) {
+            return finish(Outcome.TIMED_OUT, now);
+        }
+        return Outcome.PENDING;
+    }
+
+    private Outcome finish(Outcome finished, long now) {
+        outcome = finished;
+        durations[finished.ordinal()].record(now - startedAt);
+        consecutiveTimeouts = finished == Outcome.TIMED_OUT ? consecutiveTimeouts + 1 : 0;
+        return finished;
+    }
+}
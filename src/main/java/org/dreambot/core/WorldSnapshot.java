@@ -0,0 +1,164 @@
+package org.dreambot.core;
+
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.core.game.GameApi;
+
+/*
+ * WorldSnapshot.java
+ *
+ * One read of the world per server tick, shared by every node's validate().
+ *
+ * Key functionality:
+ * - Reads the cheap per-tick values (player tile and animation, run energy, bank and
+ *   dialogue open) once when a new tick starts, and carries the tick's InventorySnapshot
+ * - Memoises the costly per-object question (can we reach it) for the rest of the tick,
+ *   so several nodes asking the same thing pay for it once
+ * - Answers bank questions from a BankCache read once per opening of the bank
+ * - invalidate() after an action forces a fresh read even within the same tick
+ *
+ * Values only change when the client applies a tick, so like InventorySnapshot a
+ * snapshot stays valid until TickScheduler.DEFAULT_OFFSET into the next tick.
+ */
+public final class WorldSnapshot {
+    // A handful of objects are asked about per tick; a linear scan beats hashing
+    private static final int MEMO_SIZE = 8;
+
+    private final TickClock clock;
+    private final GameApi api;
+    private final InventorySnapshot inventory;
+    private final BankCache bank;
+
+    private long takenInTick = Long.MIN_VALUE;
+    private boolean stale = true;
+
+    private Tile tile;
+    private int animation;
+    private int runEnergy;
+    private boolean bankOpen;
+    private boolean inDialogue;
+
+    // Lazily read, valid for the current tick only
+    private final int[] reachIds = new int[MEMO_SIZE];
+    private final boolean[] reachValues = new boolean[MEMO_SIZE];
+    private int reachUsed;
+    private int health = -1;
+    private int poisoned = -1;
+
+    /**
+     * @param clock Tick clock deciding when the snapshot goes stale
+     * @param api Source of the world state
+     */
+    public WorldSnapshot(TickClock clock, GameApi api) {
+        this.clock = clock;
+        this.api = api;
+        this.inventory = new InventorySnapshot(clock, api);
+        this.bank = new BankCache(api);
+    }
+
+    /**
+     * Re-reads the world if a new tick has started or the snapshot was invalidated
+     */
+    public void sync() {
+        long tick = clock.tickStart(clock.now() - TickScheduler.DEFAULT_OFFSET);
+        if (!stale && tick == takenInTick) {
+            return;
+        }
+        tile = api.playerTile();
+        animation = api.playerAnimation();
+        runEnergy = api.runEnergy();
+        bankOpen = api.isBankOpen();
+        bank.sync(bankOpen);
+        inDialogue = api.inDialogue();
+        reachUsed = 0;
+        health = -1;
+        poisoned = -1;
+        takenInTick = tick;
+        stale = false;
+    }
+
+    /**
+     * Forces the next sync() to re-read, e.g. after an action changed the world
+     */
+    public void invalidate() {
+        stale = true;
+        inventory.invalidate();
+    }
+
+    public InventorySnapshot inventory() {
+        return inventory;
+    }
+
+    public BankCache bank() {
+        return bank;
+    }
+
+    /**
+     * @return Local player tile, null while logged out
+     */
+    public Tile tile() {
+        return tile;
+    }
+
+    public int animation() {
+        return animation;
+    }
+
+    public int runEnergy() {
+        return runEnergy;
+    }
+
+    public boolean bankOpen() {
+        return bankOpen;
+    }
+
+    public boolean inDialogue() {
+        return inDialogue;
+    }
+
+    /**
+     * @param objectId Game object ID
+     * @return true if the object is loaded and reachable, read at most once per tick
+     */
+    public boolean canReach(int objectId) {
+        for (int i = 0; i < reachUsed; i++) {
+            if (reachIds[i] == objectId) {
+                return reachValues[i];
+            }
+        }
+        boolean value = api.canReachObject(objectId);
+        if (reachUsed < MEMO_SIZE) {
+            reachIds[reachUsed] = objectId;
+            reachValues[reachUsed] = value;
+            reachUsed++;
+        }
+        return value;
+    }
+
+    /**
+     * @param itemId Item ID
+     * @return true if the bank holds the item, as of its last opening plus our own moves
+     */
+    public boolean bankContains(int itemId) {
+        return bank.contains(itemId);
+    }
+
+    /**
+     * @return Local player health, 0 to 100, read at most once per tick
+     */
+    public int healthPercent() {
+        if (health < 0) {
+            health = api.healthPercent();
+        }
+        return health;
+    }
+
+    /**
+     * @return true if the player is poisoned, read at most once per tick
+     */
+    public boolean isPoisoned() {
+        if (poisoned < 0) {
+            poisoned = api.isPoisoned() ? 1 : 0;
+        }
+        return poisoned == 1;
+    }
+}
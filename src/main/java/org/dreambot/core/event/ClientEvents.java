@@ -0,0 +1,60 @@
+package org.dreambot.core.event;
+
+import org.dreambot.api.methods.skills.SkillEvent;
+import org.dreambot.api.wrappers.items.Item;
+import org.dreambot.api.wrappers.widgets.message.Message;
+
+/*
+ * ClientEvents.java
+ *
+ * Turns DreamBot listener callbacks into GameEvents on a bus.
+ *
+ * The client only delivers ItemContainerListener, ChatListener and ExperienceListener
+ * callbacks to the running script, so each script implements those interfaces and
+ * forwards the calls here. Runs on the client's thread: no client queries, no logging.
+ */
+public final class ClientEvents {
+
+    private ClientEvents() {
+    }
+
+    /**
+     * A slot changed; for a stack that is an amount change, otherwise one item left and
+     * another arrived
+     */
+    public static void itemChanged(EventBus bus, Item incoming, Item outgoing) {
+        if (incoming != null && outgoing != null && incoming.getID() == outgoing.getID()) {
+            int delta = incoming.getAmount() - outgoing.getAmount();
+            if (delta != 0) {
+                bus.post(GameEvent.item(incoming.getID(), delta));
+            }
+            return;
+        }
+        itemRemoved(bus, outgoing);
+        itemAdded(bus, incoming);
+    }
+
+    public static void itemAdded(EventBus bus, Item item) {
+        if (item != null) {
+            bus.post(GameEvent.item(item.getID(), item.getAmount()));
+        }
+    }
+
+    public static void itemRemoved(EventBus bus, Item item) {
+        if (item != null) {
+            bus.post(GameEvent.item(item.getID(), -item.getAmount()));
+        }
+    }
+
+    public static void gameMessage(EventBus bus, Message message) {
+        if (message != null) {
+            bus.post(GameEvent.chat(message.getMessage()));
+        }
+    }
+
+    public static void experience(EventBus bus, SkillEvent event) {
+        if (event != null && event.getChange() > 0) {
+            bus.post(GameEvent.experience(event.getSkill(), event.getChange()));
+        }
+    }
+}
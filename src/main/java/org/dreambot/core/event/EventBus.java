@@ -0,0 +1,103 @@
+package org.dreambot.core.event;
+
+/*
+ * EventBus.java
+ *
+ * Hands game events from the client's listener thread to the script thread.
+ *
+ * Key functionality:
+ * - post() appends to a fixed ring of recent events and wakes any blocked waiter
+ * - Waits are expressed as "an event matching F since sequence S", so an event that
+ *   lands between an action and the wait being set up is still seen
+ * - await() blocks the script thread until a match or a deadline, so a parked wait ends
+ *   when the client reports the change instead of at the next poll
+ *
+ * The simulator posts from the same thread that waits, in virtual time, so it uses a
+ * non-blocking bus: await() only reports what has already been posted.
+ */
+public final class EventBus {
+    // Far more than arrive between two polls; older events are simply no longer matched
+    private static final int CAPACITY = 64;
+
+    private final boolean blocking;
+    private final GameEvent[] ring = new GameEvent[CAPACITY];
+    private long sequence;
+
+    /**
+     * @param blocking true if await() may block the calling thread (live client), false
+     *                 if events are posted on the waiting thread (simulator)
+     */
+    public EventBus(boolean blocking) {
+        this.blocking = blocking;
+    }
+
+    /**
+     * @return true if await() blocks for its full time when nothing matches
+     */
+    public boolean isBlocking() {
+        return blocking;
+    }
+
+    /**
+     * Records an event and wakes any waiter
+     * @param event Event from a listener
+     */
+    public synchronized void post(GameEvent event) {
+        ring[(int) (sequence % CAPACITY)] = event;
+        sequence++;
+        if (blocking) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * @return Number of events posted so far; pass it to matchedSince() or await() to
+     *         only consider events posted after this call
+     */
+    public synchronized long sequence() {
+        return sequence;
+    }
+
+    /**
+     * @param since Sequence from an earlier sequence() call
+     * @param filter Events of interest
+     * @return true if a matching event was posted since then
+     */
+    public synchronized boolean matchedSince(long since, EventFilter filter) {
+        for (long s = Math.max(since, sequence - CAPACITY); s < sequence; s++) {
+            if (filter.matches(ring[(int) (s % CAPACITY)])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Blocks until a matching event has been posted since the given sequence
+     * @param since Sequence from an earlier sequence() call
+     * @param filter Events of interest
+     * @param maxMs Longest time to block
+     * @return true if a matching event was posted, false on timeout
+     */
+    public synchronized boolean await(long since, EventFilter filter, long maxMs) {
+        long deadline = System.currentTimeMillis() + maxMs;
+        long checkedTo = since;
+        while (true) {
+            if (matchedSince(checkedTo, filter)) {
+                return true;
+            }
+            checkedTo = sequence;
+            long left = deadline - System.currentTimeMillis();
+            if (!blocking || left <= 0) {
+                return false;
+            }
+            try {
+                wait(left);
+            } catch (InterruptedException e) {
+                // The script is being stopped; let onLoop return
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.dreambot.core.event;
+
+import org.dreambot.api.methods.skills.Skill;
+
+/*
+ * EventFilter.java
+ *
+ * Which events a wait cares about. Filters run on whichever thread checks the bus, under
+ * its lock, so they must be cheap and must not call into the client.
+ */
+@FunctionalInterface
+public interface EventFilter {
+
+    boolean matches(GameEvent event);
+
+    /**
+     * @return Filter matching either this or the other filter
+     */
+    default EventFilter or(EventFilter other) {
+        return event -> matches(event) || other.matches(event);
+    }
+
+    /**
+     * @param itemIds Item IDs
+     * @return Filter for any of the items arriving in the inventory
+     */
+    static EventFilter itemGained(int... itemIds) {
+        return event -> event.type() == GameEvent.Type.ITEM && event.amount() > 0 && isAnyOf(event.id(), itemIds);
+    }
+
+    /**
+     * @param itemIds Item IDs
+     * @return Filter for any of the items leaving the inventory
+     */
+    static EventFilter itemLost(int... itemIds) {
+        return event -> event.type() == GameEvent.Type.ITEM && event.amount() < 0 && isAnyOf(event.id(), itemIds);
+    }
+
+    /**
+     * @param text Text to look for, case-sensitive
+     * @return Filter for a game message containing the text
+     */
+    static EventFilter chatContains(String text) {
+        return event -> event.type() == GameEvent.Type.CHAT && event.message().contains(text);
+    }
+
+    /**
+     * @param skill Skill to watch
+     * @return Filter for any experience drop in the skill
+     */
+    static EventFilter experience(Skill skill) {
+        return event -> event.type() == GameEvent.Type.EXPERIENCE && event.skill() == skill;
+    }
+
+    static boolean isAnyOf(int id, int[] ids) {
+        for (int candidate : ids) {
+            if (candidate == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,95 @@
+package org.dreambot.core.event;
+
+import org.dreambot.api.methods.skills.Skill;
+
+/*
+ * GameEvent.java
+ *
+ * One thing the client told us happened: an inventory change, a game chat message or
+ * an experience drop.
+ *
+ * Posted from the client's listener thread (or the simulator) and only read afterwards,
+ * so instances are immutable.
+ */
+public final class GameEvent {
+    public enum Type {
+        ITEM,        // Inventory amount of one item changed by a signed delta
+        CHAT,        // Game message
+        EXPERIENCE   // Experience gained in one skill
+    }
+
+    private final Type type;
+    private final int id;
+    private final int amount;
+    private final Skill skill;
+    private final String message;
+
+    private GameEvent(Type type, int id, int amount, Skill skill, String message) {
+        this.type = type;
+        this.id = id;
+        this.amount = amount;
+        this.skill = skill;
+        this.message = message;
+    }
+
+    /**
+     * @param itemId Item ID
+     * @param delta Change in the amount held, negative when items left the inventory
+     */
+    public static GameEvent item(int itemId, int delta) {
+        return new GameEvent(Type.ITEM, itemId, delta, null, null);
+    }
+
+    /**
+     * @param message Game message text
+     */
+    public static GameEvent chat(String message) {
+        return new GameEvent(Type.CHAT, -1, 0, null, message != null ? message : "");
+    }
+
+    /**
+     * @param skill Skill that gained experience
+     * @param gained Experience gained
+     */
+    public static GameEvent experience(Skill skill, int gained) {
+        return new GameEvent(Type.EXPERIENCE, -1, gained, skill, null);
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * @return Item ID for ITEM events, -1 otherwise
+     */
+    public int id() {
+        return id;
+    }
+
+    /**
+     * @return Signed item delta for ITEM events, experience for EXPERIENCE events
+     */
+    public int amount() {
+        return amount;
+    }
+
+    public Skill skill() {
+        return skill;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case ITEM:
+                return "ITEM " + id + (amount >= 0 ? " +" : " ") + amount;
+            case CHAT:
+                return "CHAT " + message;
+            default:
+                return "EXPERIENCE " + skill + " +" + amount;
+        }
+    }
+}
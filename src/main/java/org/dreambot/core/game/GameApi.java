@@ -0,0 +1,157 @@
+package org.dreambot.core.game;
+
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.api.methods.skills.Skill;
+import org.dreambot.core.event.EventBus;
+
+
+/*
+ * GameApi.java
+ *
+ * The slice of the client the furnace scripts read and act through.
+ *
+ * Key functionality:
+ * - Inventory, bank, scenery objects, the local player, walking, dialogues, skills,
+ *   varbits and equipment, reduced to the calls the decision code actually makes
+ * - Objects are addressed by ID; resolving them to wrappers is the implementation's job
+ * - An EventBus carrying inventory, chat and experience events, so waits can end on the
+ *   change itself rather than the next poll
+ *
+ * LiveGameApi forwards to the DreamBot static API. The simulator implements it over an
+ * in-memory Blast Furnace, so decision code written against this interface runs
+ * unchanged in both.
+ */
+public interface GameApi {
+
+    /**
+     * Copies the occupied inventory slots into the given arrays
+     * @param ids Receives item IDs, at least 28 long
+     * @param amounts Receives stack sizes, at least 28 long
+     * @return Number of occupied slots written
+     */
+    int readInventory(int[] ids, int[] amounts);
+
+    /**
+     * @return true if the interaction was sent
+     */
+    boolean interactInventory(int id, String action);
+
+    boolean isBankOpen();
+
+    /**
+     * Opens the nearest bank by the API's own search
+     * @return true if the interaction was sent
+     */
+    boolean openBank();
+
+    boolean closeBank();
+
+    /**
+     * @return Amount of the item in the open bank, read from the client
+     */
+    int bankCount(int id);
+
+    /**
+     * Copies the open bank's items into the given arrays
+     * @param ids Receives item IDs
+     * @param amounts Receives stack sizes, as long as ids
+     * @return Number of items written, at most the arrays' length
+     */
+    int readBank(int[] ids, int[] amounts);
+
+    boolean depositAll(int id);
+
+    boolean depositAllExcept(int id);
+
+    boolean withdraw(int id, int amount);
+
+    /**
+     * @param id Game object ID
+     * @return true if the object is loaded
+     */
+    boolean objectExists(int id);
+
+    /**
+     * @param id Game object ID
+     * @return true if the object is loaded and a path to it exists
+     */
+    boolean canReachObject(int id);
+
+    /**
+     * @param id Game object ID
+     * @return true if the object is loaded and the interaction was sent
+     */
+    boolean interactObject(int id, String action);
+
+    /**
+     * Resolves the object and rests the mouse on it without clicking, so the next
+     * interaction with it goes out without mouse travel
+     * @param id Game object ID
+     * @param action Action the next click will pick
+     * @return false if the object isn't loaded, on screen or offering the action
+     */
+    boolean hoverObject(int id, String action);
+
+    /**
+     * @return Local player tile, null while logged out
+     */
+    Tile playerTile();
+
+    /**
+     * @return Local player animation, -1 when idle
+     */
+    int playerAnimation();
+
+    /**
+     * @return true while the local player is walking or running
+     */
+    boolean isMoving();
+
+    /**
+     * @return Local player health, 0 to 100
+     */
+    int healthPercent();
+
+    boolean isPoisoned();
+
+    /**
+     * Walks to a tile through the web walker, pathfinding from wherever the player is
+     * @return true if a walk was started
+     */
+    boolean walk(Tile tile);
+
+    /**
+     * Clicks a tile on the minimap, no pathfinding involved
+     * @return false if the tile isn't on the minimap or the click wasn't sent
+     */
+    boolean clickMinimap(Tile tile);
+
+    /**
+     * @return true if the player is idle or close enough to the destination to click again
+     */
+    boolean shouldWalk();
+
+    /**
+     * @return Run energy, 0 to 100
+     */
+    int runEnergy();
+
+    boolean inDialogue();
+
+    void type(String text);
+
+    int experience(Skill skill);
+
+    /**
+     * @param id Varbit ID
+     * @return Current value of the varbit
+     */
+    int varbit(int id);
+
+    boolean isEquipped(String name);
+
+    /**
+     * @return Bus the client's (or simulator's) inventory, chat and experience events go to
+     */
+    EventBus events();
+}
@@ -0,0 +1,226 @@
+package org.dreambot.core.game;
+
+import org.dreambot.api.input.Mouse;
+import org.dreambot.api.methods.combat.Combat;
+import org.dreambot.api.methods.container.impl.Inventory;
+import org.dreambot.api.methods.container.impl.bank.Bank;
+import org.dreambot.api.methods.container.impl.equipment.Equipment;
+import org.dreambot.api.methods.dialogues.Dialogues;
+import org.dreambot.api.methods.input.Keyboard;
+import org.dreambot.api.methods.interactive.Players;
+import org.dreambot.api.methods.map.Tile;
+import org.dreambot.api.methods.settings.PlayerSettings;
+import org.dreambot.api.methods.skills.Skill;
+import org.dreambot.api.methods.skills.Skills;
+import org.dreambot.api.methods.walking.impl.Walking;
+import org.dreambot.api.wrappers.interactive.GameObject;
+import org.dreambot.api.wrappers.interactive.Player;
+import org.dreambot.api.wrappers.items.Item;
+import org.dreambot.core.ObjectCache;
+import org.dreambot.core.TickClock;
+import org.dreambot.core.event.EventBus;
+
+import java.awt.Point;
+import java.util.List;
+
+/*
+ * LiveGameApi.java
+ *
+ * GameApi backed by the running DreamBot client.
+ *
+ * Every call forwards to the matching static API. Scenery lookups go through an
+ * ObjectCache so repeated calls for the same conveyor or dispenser in a loop stay cheap.
+ * The event bus is fed by the script's listener callbacks through ClientEvents.
+ */
+public final class LiveGameApi implements GameApi {
+    private final ObjectCache objects;
+    private final EventBus events = new EventBus(true);
+
+    public LiveGameApi(TickClock clock) {
+        this.objects = new ObjectCache(clock);
+    }
+
+    @Override
+    public int readInventory(int[] ids, int[] amounts) {
+        List<Item> items = Inventory.all();
+        if (items == null) {
+            return 0;
+        }
+        int used = 0;
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (item == null) {
+                continue;
+            }
+            ids[used] = item.getID();
+            amounts[used] = item.getAmount();
+            used++;
+        }
+        return used;
+    }
+
+    @Override
+    public boolean interactInventory(int id, String action) {
+        return Inventory.interact(id, action);
+    }
+
+    @Override
+    public boolean isBankOpen() {
+        return Bank.isOpen();
+    }
+
+    @Override
+    public boolean openBank() {
+        return Bank.open();
+    }
+
+    @Override
+    public boolean closeBank() {
+        return Bank.close();
+    }
+
+    @Override
+    public int bankCount(int id) {
+        return Bank.count(id);
+    }
+
+    @Override
+    public int readBank(int[] ids, int[] amounts) {
+        List<Item> items = Bank.all();
+        if (items == null) {
+            return 0;
+        }
+        int used = 0;
+        for (int i = 0; i < items.size() && used < ids.length; i++) {
+            Item item = items.get(i);
+            if (item == null) {
+                continue;
+            }
+            ids[used] = item.getID();
+            amounts[used] = item.getAmount();
+            used++;
+        }
+        return used;
+    }
+
+    @Override
+    public boolean depositAll(int id) {
+        return Bank.depositAll(id);
+    }
+
+    @Override
+    public boolean depositAllExcept(int id) {
+        return Bank.depositAllExcept(id);
+    }
+
+    @Override
+    public boolean withdraw(int id, int amount) {
+        return Bank.withdraw(id, amount);
+    }
+
+    @Override
+    public boolean objectExists(int id) {
+        return objects.get(id) != null;
+    }
+
+    @Override
+    public boolean canReachObject(int id) {
+        GameObject object = objects.get(id);
+        return object != null && object.canReach();
+    }
+
+    @Override
+    public boolean interactObject(int id, String action) {
+        GameObject object = objects.get(id);
+        return object != null && object.interact(action);
+    }
+
+    @Override
+    public boolean hoverObject(int id, String action) {
+        GameObject object = objects.get(id);
+        if (object == null || !object.isOnScreen() || !object.hasAction(action)) {
+            return false;
+        }
+        Point point = object.getClickablePoint();
+        return point != null && Mouse.move(point);
+    }
+
+    @Override
+    public Tile playerTile() {
+        Player local = Players.getLocal();
+        return local != null ? local.getTile() : null;
+    }
+
+    @Override
+    public int playerAnimation() {
+        Player local = Players.getLocal();
+        return local != null ? local.getAnimation() : -1;
+    }
+
+    @Override
+    public boolean isMoving() {
+        Player local = Players.getLocal();
+        return local != null && local.isMoving();
+    }
+
+    @Override
+    public int healthPercent() {
+        Player local = Players.getLocal();
+        return local != null ? local.getHealthPercent() : 100;
+    }
+
+    @Override
+    public boolean isPoisoned() {
+        return Combat.isPoisoned();
+    }
+
+    @Override
+    public boolean walk(Tile tile) {
+        return Walking.walk(tile);
+    }
+
+    @Override
+    public boolean clickMinimap(Tile tile) {
+        return Walking.clickTileOnMinimap(tile);
+    }
+
+    @Override
+    public boolean shouldWalk() {
+        return Walking.shouldWalk();
+    }
+
+    @Override
+    public int runEnergy() {
+        return Walking.getRunEnergy();
+    }
+
+    @Override
+    public boolean inDialogue() {
+        return Dialogues.inDialogue();
+    }
+
+    @Override
+    public void type(String text) {
+        Keyboard.type(text);
+    }
+
+    @Override
+    public int experience(Skill skill) {
+        return Skills.getExperience(skill);
+    }
+
+    @Override
+    public int varbit(int id) {
+        return PlayerSettings.getBitValue(id);
+    }
+
+    @Override
+    public boolean isEquipped(String name) {
+        return Equipment.contains(name);
+    }
+
+    @Override
+    public EventBus events() {
+        return events;
+    }
+}
@@ -0,0 +1,12 @@
+package org.dreambot.core.log;
+
+/**
+ * Severity levels for ScriptLog, lowest first.
+ * A log only accepts messages at or above its configured level.
+ */
+public enum LogLevel {
+    DEBUG,  // Per-loop detail: inventory state, positions, retries
+    INFO,   // State transitions and completed actions
+    WARN,   // Recoverable failures: timeouts, missing objects
+    ERROR   // Conditions that stop the script
+}
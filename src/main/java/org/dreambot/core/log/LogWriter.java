@@ -0,0 +1,262 @@
+package org.dreambot.core.log;
+
+import org.dreambot.api.utilities.Logger;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * LogWriter.java
+ *
+ * Background half of ScriptLog: drains the ring buffer, formats messages and writes them.
+ *
+ * Key functionality:
+ * - Wakes every FLUSH_INTERVAL_MS, or sooner when the buffer is half full
+ * - Collapses consecutive identical lines into "(repeated N times)"
+ * - Forwards to the DreamBot console and to ~/DreamBot/Logs/scripts/<name>.log,
+ *   rotating at MAX_FILE_BYTES and keeping KEPT_FILES old files
+ * - Replaces the whole files handed to ScriptLog.writeFile() in the same directory
+ *
+ * File errors disable the file sink for the rest of the run instead of retrying; the
+ * console sink keeps working either way. A whole file that can't be written is reported
+ * once and tried again with its next content.
+ */
+final class LogWriter extends Thread {
+    private static final long FLUSH_INTERVAL_MS = 250;
+    private static final long MAX_FILE_BYTES = 2L * 1024 * 1024;
+    private static final int KEPT_FILES = 3;
+
+    /**
+     * Scratch copy of the ring buffer so formatting and I/O happen outside its lock
+     */
+    static final class Batch {
+        final long[] times = new long[ScriptLog.capacity()];
+        final LogLevel[] levels = new LogLevel[ScriptLog.capacity()];
+        final String[] templates = new String[ScriptLog.capacity()];
+        final Object[][] args = new Object[ScriptLog.capacity()][3];
+        final int[] argCounts = new int[ScriptLog.capacity()];
+        int count;
+    }
+
+    private final ScriptLog source;
+    private final String name;
+    private final Batch batch = new Batch();
+    private final StringBuilder line = new StringBuilder(256);
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss.SSS");
+    private final Date date = new Date();
+
+    private volatile boolean running = true;
+
+    private File file;
+    private Writer out;
+    private long fileBytes;
+
+    private final Map<String, String> files = new LinkedHashMap<>();
+    private final Set<String> failedFiles = new HashSet<>();
+
+    private String lastMessage;
+    private LogLevel lastLevel;
+    private int repeats;
+
+    LogWriter(ScriptLog source, String name) {
+        super("ScriptLog-" + name);
+        this.source = source;
+        this.name = name;
+        setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+        openFile();
+        try {
+            while (running) {
+                source.awaitMessages(FLUSH_INTERVAL_MS);
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flush();
+            emitRepeats();
+            closeFile();
+        }
+    }
+
+    /**
+     * Stops the thread after one last flush and waits briefly for it
+     */
+    void shutdown() {
+        running = false;
+        interrupt();
+        try {
+            join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush() {
+        int dropped = source.drainTo(batch);
+        if (dropped > 0) {
+            write(LogLevel.WARN, System.currentTimeMillis(), "Log buffer overflow, dropped " + dropped + " messages");
+        }
+        for (int i = 0; i < batch.count; i++) {
+            String message = format(batch.templates[i], batch.args[i], batch.argCounts[i]);
+            batch.templates[i] = null;
+            batch.args[i][0] = null;
+            batch.args[i][1] = null;
+            batch.args[i][2] = null;
+
+            if (message.equals(lastMessage) && batch.levels[i] == lastLevel) {
+                repeats++;
+                continue;
+            }
+            emitRepeats();
+            lastMessage = message;
+            lastLevel = batch.levels[i];
+            write(batch.levels[i], batch.times[i], message);
+        }
+
+        source.drainFiles(files);
+        for (Map.Entry<String, String> entry : files.entrySet()) {
+            writeWhole(entry.getKey(), entry.getValue());
+        }
+        files.clear();
+
+        if (out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                closeFile();
+            }
+        }
+    }
+
+    private void emitRepeats() {
+        if (repeats > 0) {
+            write(lastLevel, System.currentTimeMillis(), "(repeated " + repeats + " times)");
+            repeats = 0;
+        }
+    }
+
+    private String format(String template, Object[] args, int argCount) {
+        if (argCount == 0) {
+            return template;
+        }
+        line.setLength(0);
+        int arg = 0;
+        int from = 0;
+        int at;
+        while (arg < argCount && (at = template.indexOf("{}", from)) >= 0) {
+            line.append(template, from, at).append(args[arg++]);
+            from = at + 2;
+        }
+        line.append(template, from, template.length());
+        return line.toString();
+    }
+
+    private void write(LogLevel level, long time, String message) {
+        switch (level) {
+            case WARN:
+                Logger.warn(message);
+                break;
+            case ERROR:
+                Logger.error(message);
+                break;
+            default:
+                Logger.log(message);
+                break;
+        }
+
+        if (out == null) {
+            return;
+        }
+        date.setTime(time);
+        line.setLength(0);
+        line.append(timeFormat.format(date)).append(' ').append(level).append(' ').append(message).append('\n');
+        try {
+            out.write(line.toString());
+            fileBytes += line.length();
+            if (fileBytes >= MAX_FILE_BYTES) {
+                rotate();
+            }
+        } catch (IOException e) {
+            Logger.warn("Script log file disabled: " + e.getMessage());
+            closeFile();
+        }
+    }
+
+    /**
+     * Replaces a file handed over by ScriptLog.writeFile(); a failure is reported once per file
+     */
+    private void writeWhole(String fileName, String content) {
+        File dir = directory();
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("could not create " + dir);
+            }
+            try (Writer whole = new OutputStreamWriter(new FileOutputStream(new File(dir, fileName), false), StandardCharsets.UTF_8)) {
+                whole.write(content);
+            }
+        } catch (IOException e) {
+            if (failedFiles.add(fileName)) {
+                emitRepeats();
+                write(LogLevel.WARN, System.currentTimeMillis(), "Could not write " + fileName + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static File directory() {
+        return new File(System.getProperty("user.home"), "DreamBot" + File.separator + "Logs" + File.separator + "scripts");
+    }
+
+    private void openFile() {
+        File dir = directory();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            return;
+        }
+        file = new File(dir, name + ".log");
+        try {
+            fileBytes = file.length();
+            out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            out = null;
+        }
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        for (int i = KEPT_FILES; i >= 1; i--) {
+            File older = new File(file.getPath() + "." + i);
+            File newer = i == 1 ? file : new File(file.getPath() + "." + (i - 1));
+            if (newer.exists()) {
+                older.delete();
+                newer.renameTo(older);
+            }
+        }
+        fileBytes = 0;
+        out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, false), StandardCharsets.UTF_8));
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // Nothing useful left to do with a broken log file
+            }
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package org.dreambot.core.log;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * ScriptLog.java
+ *
+ * Level-gated, parameterised logging that keeps formatting and I/O off the script thread.
+ *
+ * Key functionality:
+ * - Checks the level before anything else, so disabled messages cost one comparison
+ * - Takes "{}" templates plus up to three arguments instead of concatenated strings;
+ *   fixed-arity overloads avoid allocating a varargs array per call
+ * - Appends raw template and arguments to a bounded ring buffer; a LogWriter thread
+ *   formats them, collapses repeated lines and writes to the DreamBot console and a
+ *   rotating file
+ * - writeFile() hands whole files (timings dumps) to the same thread, so their I/O stays
+ *   off the script thread as well
+ *
+ * When the buffer is full the oldest unwritten message is overwritten and counted, so a
+ * stalled writer can never block or grow the script's memory.
+ *
+ * Usage:
+ *   ScriptLog logger = new ScriptLog("SteelBarSmelter", LogLevel.INFO);
+ *   logger.start();                                  // onStart
+ *   logger.info("Deposited {} bars", count);
+ *   logger.close();                                  // onExit
+ */
+public final class ScriptLog {
+    private static final int CAPACITY = 256;
+
+    private final String name;
+    private final LogLevel level;
+
+    // Ring buffer of pending messages, guarded by this
+    private final long[] times = new long[CAPACITY];
+    private final LogLevel[] levels = new LogLevel[CAPACITY];
+    private final String[] templates = new String[CAPACITY];
+    private final Object[][] args = new Object[CAPACITY][3];
+    private final int[] argCounts = new int[CAPACITY];
+    private int head;
+    private int size;
+    private int dropped;
+
+    // Whole files for the writer, the latest content per name; guarded by this
+    private final Map<String, String> files = new LinkedHashMap<>();
+
+    private LogWriter writer;
+
+    public ScriptLog(String name, LogLevel level) {
+        this.name = name;
+        this.level = level;
+    }
+
+    /**
+     * Starts the background writer. Messages logged before this are buffered.
+     */
+    public synchronized void start() {
+        if (writer == null) {
+            writer = new LogWriter(this, name);
+            writer.start();
+        }
+    }
+
+    /**
+     * Flushes everything pending and stops the background writer
+     */
+    public void close() {
+        LogWriter current;
+        synchronized (this) {
+            current = writer;
+            writer = null;
+        }
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    public void debug(String message) { log(LogLevel.DEBUG, message, 0, null, null, null); }
+    public void debug(String template, Object a) { log(LogLevel.DEBUG, template, 1, a, null, null); }
+    public void debug(String template, Object a, Object b) { log(LogLevel.DEBUG, template, 2, a, b, null); }
+    public void debug(String template, Object a, Object b, Object c) { log(LogLevel.DEBUG, template, 3, a, b, c); }
+
+    public void info(String message) { log(LogLevel.INFO, message, 0, null, null, null); }
+    public void info(String template, Object a) { log(LogLevel.INFO, template, 1, a, null, null); }
+    public void info(String template, Object a, Object b) { log(LogLevel.INFO, template, 2, a, b, null); }
+    public void info(String template, Object a, Object b, Object c) { log(LogLevel.INFO, template, 3, a, b, c); }
+
+    public void warn(String message) { log(LogLevel.WARN, message, 0, null, null, null); }
+    public void warn(String template, Object a) { log(LogLevel.WARN, template, 1, a, null, null); }
+    public void warn(String template, Object a, Object b) { log(LogLevel.WARN, template, 2, a, b, null); }
+    public void warn(String template, Object a, Object b, Object c) { log(LogLevel.WARN, template, 3, a, b, c); }
+
+    public void error(String message) { log(LogLevel.ERROR, message, 0, null, null, null); }
+    public void error(String template, Object a) { log(LogLevel.ERROR, template, 1, a, null, null); }
+    public void error(String template, Object a, Object b) { log(LogLevel.ERROR, template, 2, a, b, null); }
+    public void error(String template, Object a, Object b, Object c) { log(LogLevel.ERROR, template, 3, a, b, c); }
+
+    private void log(LogLevel messageLevel, String template, int argCount, Object a, Object b, Object c) {
+        if (messageLevel.ordinal() < level.ordinal()) {
+            return;
+        }
+
+        synchronized (this) {
+            int index;
+            if (size == CAPACITY) {
+                // Overwrite the oldest pending message rather than block the caller
+                index = head;
+                head = (head + 1) % CAPACITY;
+                dropped++;
+            } else {
+                index = (head + size) % CAPACITY;
+                size++;
+            }
+            times[index] = System.currentTimeMillis();
+            levels[index] = messageLevel;
+            templates[index] = template;
+            argCounts[index] = argCount;
+            Object[] slot = args[index];
+            slot[0] = a;
+            slot[1] = b;
+            slot[2] = c;
+
+            if (size > CAPACITY / 2) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Hands a whole file to the background writer, which replaces it next to the log file
+     * on its next flush. Content for a name not written yet is replaced by the newer one.
+     * @param fileName File name, e.g. "SteelBarSmelter-timings.csv"
+     * @param content Complete file content
+     */
+    public synchronized void writeFile(String fileName, String content) {
+        files.put(fileName, content);
+    }
+
+    /**
+     * Moves pending files into the writer's map. Called by LogWriter only.
+     */
+    synchronized void drainFiles(Map<String, String> out) {
+        out.putAll(files);
+        files.clear();
+    }
+
+    /**
+     * Moves pending messages into the writer's batch. Called by LogWriter only.
+     * @param batch Destination, must have room for CAPACITY messages
+     * @return Number of messages dropped since the last drain
+     */
+    synchronized int drainTo(LogWriter.Batch batch) {
+        batch.count = size;
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % CAPACITY;
+            batch.times[i] = times[index];
+            batch.levels[i] = levels[index];
+            batch.templates[i] = templates[index];
+            batch.argCounts[i] = argCounts[index];
+            Object[] slot = args[index];
+            batch.args[i][0] = slot[0];
+            batch.args[i][1] = slot[1];
+            batch.args[i][2] = slot[2];
+            slot[0] = null;
+            slot[1] = null;
+            slot[2] = null;
+            templates[index] = null;
+        }
+        head = 0;
+        size = 0;
+
+        int lost = dropped;
+        dropped = 0;
+        return lost;
+    }
+
+    /**
+     * Blocks the writer until there is enough to flush or the interval passes
+     * @param intervalMs Maximum wait
+     */
+    synchronized void awaitMessages(long intervalMs) throws InterruptedException {
+        if (size <= CAPACITY / 2) {
+            wait(intervalMs);
+        }
+    }
+
+    static int capacity() {
+        return CAPACITY;
+    }
+}
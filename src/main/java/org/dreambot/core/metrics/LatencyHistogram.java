@@ -0,0 +1,88 @@
+package org.dreambot.core.metrics;
+
+/*
+ * LatencyHistogram.java
+ *
+ * Fixed-size log-linear histogram of millisecond durations.
+ *
+ * Values below 16 get a bucket each; above that every power of two is split into 16
+ * linear sub-buckets, so any recorded value is reported within about 6% while the whole
+ * range up to MAX_VALUE fits in 336 counters. Recording is a couple of shifts and an
+ * array increment, cheap enough to call on every state change.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    // Roughly 4.6 hours; anything longer is clamped into the last bucket
+    public static final long MAX_VALUE = (1L << 24) - 1;
+    private static final int BUCKETS = (24 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * @param value Duration in milliseconds; negatives count as 0
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, MAX_VALUE));
+        counts[indexOf(clamped)]++;
+        count++;
+        sum += clamped;
+        if (clamped > max) {
+            max = clamped;
+        }
+    }
+
+    /**
+     * @param percentile Fraction between 0 and 1, e.g. 0.95
+     * @return Upper bound of the bucket holding that percentile, 0 when empty
+     */
+    public long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public long mean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BITS);
+        return ((long) (SUB_BUCKETS + sub) << (exponent - SUB_BITS)) + width - 1;
+    }
+}
@@ -0,0 +1,126 @@
+package org.dreambot.core.metrics;
+
+/*
+ * RateEstimator.java
+ *
+ * Per-hour rates of a cumulative counter (XP gained, bars made, herbs picked) over recent
+ * windows instead of the whole run, so a slowdown shows up within minutes.
+ *
+ * Key functionality:
+ * - Keeps timestamped samples of the running total in a primitive ring buffer,
+ *   one sample per SAMPLE_INTERVAL_MS at most, enough to cover the longest window
+ * - Fixed-window rates: (total now - total at window start) / window length, using the
+ *   oldest sample when the run is shorter than the window
+ * - An EWMA of the instantaneous rate with a configurable time constant
+ *
+ * Rates read 0 until MIN_ELAPSED_MS of history exists, which avoids the huge numbers a
+ * division by a near-zero runtime produces at startup.
+ */
+public final class RateEstimator {
+    public static final long FIVE_MINUTES = 5 * 60_000L;
+    public static final long FIFTEEN_MINUTES = 15 * 60_000L;
+    public static final long SIXTY_MINUTES = 60 * 60_000L;
+
+    private static final long SAMPLE_INTERVAL_MS = 5_000;
+    private static final long MIN_ELAPSED_MS = 30_000;
+    private static final double MS_PER_HOUR = 3_600_000.0;
+
+    // One hour of 5 second samples plus slack, rounded to a power of two
+    private static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+
+    private final long[] times = new long[CAPACITY];
+    private final long[] totals = new long[CAPACITY];
+    private final double ewmaTauMs;
+    private int head;   // index of the newest sample
+    private int size;
+
+    private double ewmaPerMs;
+    private boolean ewmaSeeded;
+
+    /**
+     * @param ewmaTauMs Time constant of the EWMA; larger is smoother and slower to react
+     */
+    public RateEstimator(long ewmaTauMs) {
+        this.ewmaTauMs = ewmaTauMs;
+    }
+
+    /**
+     * Records the current running total. Calls closer together than the sample interval
+     * are ignored, so this can be called every loop.
+     * @param now Current time in milliseconds
+     * @param total Running total since the script started
+     */
+    public void record(long now, long total) {
+        if (size > 0) {
+            long lastTime = times[head];
+            long dt = now - lastTime;
+            if (dt < SAMPLE_INTERVAL_MS) {
+                return;
+            }
+            updateEwma((total - totals[head]) / (double) dt, dt);
+            head = (head + 1) & MASK;
+        }
+        times[head] = now;
+        totals[head] = total;
+        if (size < CAPACITY) {
+            size++;
+        }
+    }
+
+    private void updateEwma(double ratePerMs, long dt) {
+        if (!ewmaSeeded) {
+            ewmaPerMs = ratePerMs;
+            ewmaSeeded = true;
+            return;
+        }
+        double alpha = 1.0 - Math.exp(-dt / ewmaTauMs);
+        ewmaPerMs += alpha * (ratePerMs - ewmaPerMs);
+    }
+
+    /**
+     * Rate over the last windowMs, or over the whole history if it is shorter
+     * @param now Current time in milliseconds
+     * @param windowMs Window length, e.g. FIFTEEN_MINUTES
+     * @return Rate per hour, 0 while there is too little history
+     */
+    public int perHour(long now, long windowMs) {
+        if (size < 2) {
+            return 0;
+        }
+        long from = now - windowMs;
+
+        // Walk back from the newest sample to the oldest one still inside the window
+        int index = head;
+        for (int i = 1; i < size; i++) {
+            int previous = (head - i) & MASK;
+            if (times[previous] < from) {
+                break;
+            }
+            index = previous;
+        }
+
+        long elapsed = times[head] - times[index];
+        if (elapsed < MIN_ELAPSED_MS) {
+            return 0;
+        }
+        return (int) ((totals[head] - totals[index]) * MS_PER_HOUR / elapsed);
+    }
+
+    /**
+     * @return Exponentially weighted rate per hour, 0 until two samples exist
+     */
+    public int ewmaPerHour() {
+        return ewmaSeeded ? (int) (ewmaPerMs * MS_PER_HOUR) : 0;
+    }
+
+    /**
+     * Clears all history
+     */
+    public void reset() {
+        size = 0;
+        head = 0;
+        ewmaSeeded = false;
+        ewmaPerMs = 0;
+    }
+}
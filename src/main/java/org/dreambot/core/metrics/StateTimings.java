@@ -0,0 +1,139 @@
+package org.dreambot.core.metrics;
+
+/*
+ * StateTimings.java
+ *
+ * Measures how long a script spends in each state and how long a full lap takes.
+ *
+ * Key functionality:
+ * - observe(state, now) is called once per loop; when the state differs from the last one
+ *   seen, the time spent in the previous state goes into that state's histogram
+ * - Entering the configured lap state closes a lap and records its duration
+ * - Summaries for the paint overlay, and CSV/JSON renderings for TimingsDump
+ *
+ * Transitions are timestamped at loop granularity, which is one tick or better now that
+ * the loop is tick-scheduled.
+ */
+public final class StateTimings<E extends Enum<E>> {
+    private final E[] states;
+    private final LatencyHistogram[] histograms;
+    private final LatencyHistogram laps = new LatencyHistogram();
+    private final E lapState;
+
+    private E current;
+    private long enteredAt;
+    private long lapStartedAt = -1;
+
+    /**
+     * @param type State enum class
+     * @param lapState Entering this state marks the end of one lap and the start of the next
+     */
+    public StateTimings(Class<E> type, E lapState) {
+        this.states = type.getEnumConstants();
+        this.histograms = new LatencyHistogram[states.length];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        this.lapState = lapState;
+    }
+
+    /**
+     * Records a transition if the state changed since the last call
+     * @param state State the script is in now
+     * @param now Current time in milliseconds
+     */
+    public void observe(E state, long now) {
+        if (state == current) {
+            return;
+        }
+        if (current != null) {
+            histograms[current.ordinal()].record(now - enteredAt);
+        }
+        if (state == lapState) {
+            if (lapStartedAt >= 0) {
+                laps.record(now - lapStartedAt);
+            }
+            lapStartedAt = now;
+        }
+        current = state;
+        enteredAt = now;
+    }
+
+    public LatencyHistogram of(E state) {
+        return histograms[state.ordinal()];
+    }
+
+    public LatencyHistogram laps() {
+        return laps;
+    }
+
+    /**
+     * @return Paint line with lap count and lap p50/p95 in seconds
+     */
+    public String lapSummary() {
+        return String.format("Laps: %d (p50 %.1fs, p95 %.1fs)",
+            laps.count(), laps.percentile(0.50) / 1000.0, laps.percentile(0.95) / 1000.0);
+    }
+
+    /**
+     * @return Paint line naming the state with the highest p95, the first place to look
+     */
+    public String slowestSummary() {
+        int slowest = -1;
+        long worst = 0;
+        for (int i = 0; i < histograms.length; i++) {
+            long p95 = histograms[i].percentile(0.95);
+            if (p95 > worst) {
+                worst = p95;
+                slowest = i;
+            }
+        }
+        if (slowest < 0) {
+            return "Slowest state: -";
+        }
+        return String.format("Slowest: %s p95 %.1fs", states[slowest], worst / 1000.0);
+    }
+
+    /**
+     * @return CSV with one row per state plus a LAP row, durations in milliseconds
+     */
+    public String toCsv() {
+        StringBuilder out = new StringBuilder("name,count,p50,p95,p99,max,mean\n");
+        for (int i = 0; i < states.length; i++) {
+            appendCsv(out, states[i].name(), histograms[i]);
+        }
+        appendCsv(out, "LAP", laps);
+        return out.toString();
+    }
+
+    /**
+     * @return JSON object keyed by state name plus "LAP", durations in milliseconds
+     */
+    public String toJson() {
+        StringBuilder out = new StringBuilder("{\n");
+        for (int i = 0; i < states.length; i++) {
+            appendJson(out, states[i].name(), histograms[i]);
+            out.append(",\n");
+        }
+        appendJson(out, "LAP", laps);
+        return out.append("\n}\n").toString();
+    }
+
+    private static void appendCsv(StringBuilder out, String name, LatencyHistogram h) {
+        out.append(name).append(',').append(h.count())
+            .append(',').append(h.percentile(0.50))
+            .append(',').append(h.percentile(0.95))
+            .append(',').append(h.percentile(0.99))
+            .append(',').append(h.max())
+            .append(',').append(h.mean()).append('\n');
+    }
+
+    private static void appendJson(StringBuilder out, String name, LatencyHistogram h) {
+        out.append("  \"").append(name).append("\": {\"count\": ").append(h.count())
+            .append(", \"p50\": ").append(h.percentile(0.50))
+            .append(", \"p95\": ").append(h.percentile(0.95))
+            .append(", \"p99\": ").append(h.percentile(0.99))
+            .append(", \"max\": ").append(h.max())
+            .append(", \"mean\": ").append(h.mean()).append('}');
+    }
+}
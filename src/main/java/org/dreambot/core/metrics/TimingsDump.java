@@ -0,0 +1,60 @@
+package org.dreambot.core.metrics;
+
+import org.dreambot.core.Clock;
+import org.dreambot.core.log.ScriptLog;
+
+/*
+ * TimingsDump.java
+ *
+ * Writes a script's StateTimings to disk so runs can be compared after the fact.
+ *
+ * Key functionality:
+ * - maybeWrite(now) rewrites the files every DUMP_INTERVAL_MS; write() is for onExit
+ * - ~/DreamBot/Logs/scripts/<name>-timings.csv and <name>-timings.json, next to the
+ *   ScriptLog file, each holding count, p50, p95, p99, max and mean per state plus the lap
+ * - The files are written by the ScriptLog's background thread, which reports a failed
+ *   write to the log once
+ *
+ * Files are overwritten with the cumulative numbers for the run rather than appended, so
+ * the last dump is always the complete picture.
+ */
+public final class TimingsDump {
+    private static final long DUMP_INTERVAL_MS = 5 * 60 * 1000L;
+
+    private final String name;
+    private final StateTimings<?> timings;
+    private final ScriptLog logger;
+    private long lastDump;
+
+    /**
+     * @param name File name prefix, the same as the ScriptLog's
+     * @param timings Timings to write
+     * @param logger Log whose writer thread writes the files
+     * @param clock Time source maybeWrite() is given the time from
+     */
+    public TimingsDump(String name, StateTimings<?> timings, ScriptLog logger, Clock clock) {
+        this.name = name;
+        this.timings = timings;
+        this.logger = logger;
+        this.lastDump = clock.now();
+    }
+
+    /**
+     * Writes the files if the dump interval has passed
+     * @param now Current time in milliseconds, from the constructor's clock
+     */
+    public void maybeWrite(long now) {
+        if (now - lastDump >= DUMP_INTERVAL_MS) {
+            lastDump = now;
+            write();
+        }
+    }
+
+    /**
+     * Hands both files to the log's writer thread
+     */
+    public void write() {
+        logger.writeFile(name + "-timings.csv", timings.toCsv());
+        logger.writeFile(name + "-timings.json", timings.toJson());
+    }
+}
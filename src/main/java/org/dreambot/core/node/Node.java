@@ -0,0 +1,75 @@
+package org.dreambot.core.node;
+
+import org.dreambot.core.WorldSnapshot;
+
+/*
+ * Node.java
+ *
+ * One action a script can take, with the condition under which it is the right one.
+ *
+ * Key functionality:
+ * - validate() answers "should this run now" from the shared per-tick WorldSnapshot and
+ *   the script's own memory; it must not act on the game
+ * - execute() issues at most one action and returns the delay before the next pass,
+ *   normally from the script's TickScheduler
+ * - Higher priority runs first; emergency nodes are checked before every other node
+ *   regardless of priority
+ *
+ * The NodeEngine times every validate() against validateBudgetNanos(), so anything costly
+ * belongs in the snapshot's memoised reads rather than in the node.
+ */
+public abstract class Node {
+    // Generous for a snapshot read, tight enough to flag a stray client scan
+    public static final long DEFAULT_BUDGET_NANOS = 200_000;
+
+    private final String name;
+    private final int priority;
+
+    /**
+     * @param name Name used in logs and the paint
+     * @param priority Higher runs first
+     */
+    protected Node(String name, int priority) {
+        this.name = name;
+        this.priority = priority;
+    }
+
+    public final String name() {
+        return name;
+    }
+
+    public final int priority() {
+        return priority;
+    }
+
+    /**
+     * @return true if the node is checked ahead of all non-emergency nodes
+     */
+    public boolean isEmergency() {
+        return false;
+    }
+
+    /**
+     * @return Time validate() should stay under, in nanoseconds
+     */
+    public long validateBudgetNanos() {
+        return DEFAULT_BUDGET_NANOS;
+    }
+
+    /**
+     * @param world Snapshot for the current tick
+     * @return true if this node should run now
+     */
+    public abstract boolean validate(WorldSnapshot world);
+
+    /**
+     * @param world Snapshot for the current tick
+     * @return Sleep duration in milliseconds before the next pass
+     */
+    public abstract int execute(WorldSnapshot world);
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
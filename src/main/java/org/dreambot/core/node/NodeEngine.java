@@ -0,0 +1,144 @@
+package org.dreambot.core.node;
+
+import org.dreambot.core.WorldSnapshot;
+import org.dreambot.core.log.ScriptLog;
+import org.dreambot.core.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * NodeEngine.java
+ *
+ * Picks and runs the highest-value node each pass, and keeps the picking cheap.
+ *
+ * Key functionality:
+ * - Keeps nodes ordered once at add() time: emergency nodes first, then by descending
+ *   priority, ties in insertion order
+ * - Each pass syncs the WorldSnapshot, validates in order and executes the first node that
+ *   accepts, so nothing below it is even asked
+ * - Times every validate() into a per-node histogram and the whole selection into a pass
+ *   histogram, and warns (at most once a minute) about a node over its budget
+ * - Logs node transitions for debugging
+ *
+ * The world is invalidated after every execute(), so a node that acted and asked to be
+ * re-run in the same tick sees the result of its action.
+ */
+public final class NodeEngine<N extends Node> {
+    private static final long WARN_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final ScriptLog logger;
+    private final List<N> nodes = new ArrayList<>();
+    // Nanoseconds; the histogram clamps near 16.8 ms, far past any sane budget anyway
+    private final List<LatencyHistogram> validateNanos = new ArrayList<>();
+    private final LatencyHistogram passNanos = new LatencyHistogram();
+
+    private N current;
+    private long lastBudgetWarning = Long.MIN_VALUE / 2;
+
+    /**
+     * @param logger Script log for transitions and budget warnings
+     */
+    public NodeEngine(ScriptLog logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Adds a node in its priority slot
+     * @param node Node to add
+     * @return This engine, for chaining
+     */
+    public NodeEngine<N> add(N node) {
+        int index = 0;
+        while (index < nodes.size() && ranksBefore(nodes.get(index), node)) {
+            index++;
+        }
+        nodes.add(index, node);
+        validateNanos.add(index, new LatencyHistogram());
+        return this;
+    }
+
+    private static boolean ranksBefore(Node existing, Node added) {
+        if (existing.isEmergency() != added.isEmergency()) {
+            return existing.isEmergency();
+        }
+        return existing.priority() >= added.priority();
+    }
+
+    /**
+     * Runs one pass: executes the first node that validates
+     * @param world Snapshot for this tick, synced here
+     * @return The node's delay, or -1 if no node validated
+     */
+    public int run(WorldSnapshot world) {
+        world.sync();
+        long passStart = System.nanoTime();
+        for (int i = 0; i < nodes.size(); i++) {
+            N node = nodes.get(i);
+            long start = System.nanoTime();
+            boolean valid = node.validate(world);
+            long cost = System.nanoTime() - start;
+            validateNanos.get(i).record(cost);
+            if (cost > node.validateBudgetNanos()) {
+                warnOverBudget(node, cost, start);
+            }
+            if (!valid) {
+                continue;
+            }
+
+            passNanos.record(System.nanoTime() - passStart);
+            if (node != current) {
+                logger.debug("Node: {} -> {}", current, node);
+                current = node;
+            }
+            int delay = node.execute(world);
+            world.invalidate();
+            return delay;
+        }
+
+        passNanos.record(System.nanoTime() - passStart);
+        current = null;
+        return -1;
+    }
+
+    private void warnOverBudget(N node, long cost, long now) {
+        if (now - lastBudgetWarning < WARN_INTERVAL_NANOS) {
+            return;
+        }
+        lastBudgetWarning = now;
+        logger.warn("{}.validate() took {} us, budget {} us",
+            node.name(), cost / 1000, node.validateBudgetNanos() / 1000);
+    }
+
+    /**
+     * @return The node executed by the latest pass, null if none validated
+     */
+    public N current() {
+        return current;
+    }
+
+    /**
+     * @return Nodes in evaluation order
+     */
+    public List<N> nodes() {
+        return nodes;
+    }
+
+    /**
+     * @return Paint line with the pass p95 and the node with the costliest validate()
+     */
+    public String validateSummary() {
+        int slowest = -1;
+        long worst = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            long p95 = validateNanos.get(i).percentile(0.95);
+            if (p95 > worst) {
+                worst = p95;
+                slowest = i;
+            }
+        }
+        return String.format("Select p95 %.1fus, costliest %s %.1fus",
+            passNanos.percentile(0.95) / 1000.0,
+            slowest < 0 ? "-" : nodes.get(slowest).name(), worst / 1000.0);
+    }
+}
@@ -0,0 +1,134 @@
+package org.dreambot.core.paint;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/*
+ * StatsPanel.java
+ *
+ * Paint overlay that renders at frame rate without recomputing or allocating anything.
+ *
+ * Key functionality:
+ * - The script thread rebuilds its text lines at most once per REFRESH_MS (isDue/publish)
+ *   and publishes them as an immutable snapshot through a volatile field
+ * - The paint thread redraws the panel into a reusable off-screen image only when a new
+ *   snapshot has been published, and otherwise just blits that image
+ * - Colors are shared constants; nothing in paint() allocates
+ *
+ * Usage:
+ *   if (panel.isDue(now)) panel.publish(now, new String[] {...});   // onLoop
+ *   panel.paint(g);                                                 // onPaint
+ */
+public final class StatsPanel {
+    public static final long REFRESH_MS = 1000;
+
+    private static final Color BACKGROUND = new Color(0, 0, 0, 180);
+    private static final Color TEXT = Color.WHITE;
+    private static final int LINE_HEIGHT = 20;
+    private static final int PADDING = 5;
+
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+
+    // Written by the script thread, read by the paint thread
+    private volatile String[] snapshot;
+    private long nextRefresh;
+
+    // Paint thread only
+    private BufferedImage image;
+    private String[] rendered;
+
+    /**
+     * @param x Left edge on the game canvas
+     * @param y Top edge on the game canvas
+     * @param width Panel width in pixels
+     * @param lines Number of text lines the panel holds
+     */
+    public StatsPanel(int x, int y, int width, int lines) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = lines * LINE_HEIGHT + PADDING;
+    }
+
+    /**
+     * @param now Current time in milliseconds
+     * @return true if the script should rebuild and publish its lines
+     */
+    public boolean isDue(long now) {
+        return now >= nextRefresh;
+    }
+
+    /**
+     * Forces the next isDue() to return true, e.g. after a state change
+     */
+    public void invalidate() {
+        nextRefresh = 0;
+    }
+
+    /**
+     * Publishes a new set of lines for the paint thread. The array must not be modified afterwards.
+     * @param now Current time in milliseconds
+     * @param lines Text lines, top to bottom
+     */
+    public void publish(long now, String[] lines) {
+        snapshot = lines;
+        nextRefresh = now + REFRESH_MS;
+    }
+
+    /**
+     * Draws the panel, re-rendering the cached image only if a new snapshot arrived
+     * @param g Graphics from onPaint
+     */
+    public void paint(Graphics g) {
+        String[] lines = snapshot;
+        if (lines == null) {
+            return;
+        }
+        if (image == null) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        if (lines != rendered) {
+            render(lines, g.getFont());
+            rendered = lines;
+        }
+        g.drawImage(image, x, y, null);
+    }
+
+    private void render(String[] lines, Font font) {
+        Graphics2D ig = image.createGraphics();
+        try {
+            Composite original = ig.getComposite();
+            ig.setComposite(AlphaComposite.Clear);
+            ig.fillRect(0, 0, width, height);
+            ig.setComposite(original);
+
+            ig.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            if (font != null) {
+                ig.setFont(font);
+            }
+            ig.setColor(BACKGROUND);
+            ig.fillRect(0, 0, width, height);
+
+            ig.setColor(TEXT);
+            // Baselines sit where the scripts drew them before: 15 px into the panel, then every 20
+            int lineY = LINE_HEIGHT - PADDING;
+            for (String line : lines) {
+                if (line != null) {
+                    ig.drawString(line, PADDING, lineY);
+                }
+                lineY += LINE_HEIGHT;
+            }
+        } finally {
+            ig.dispose();
+        }
+    }
+}
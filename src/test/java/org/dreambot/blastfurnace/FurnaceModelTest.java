@@ -0,0 +1,42 @@
+package org.dreambot.blastfurnace;
+
+import org.dreambot.core.TickClock;
+import org.dreambot.core.metrics.LatencyHistogram;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * FurnaceModelTest.java
+ *
+ * readyAt() from learned load-to-bars latencies. Only the prediction is exercised, so the
+ * model runs without a game API.
+ */
+public class FurnaceModelTest {
+
+    @Test
+    public void nothingInFlightHasNoReadyTime() {
+        assertEquals(-1, new FurnaceModel(null).readyAt());
+    }
+
+    @Test
+    public void threeTicksUntilThereIsData() {
+        FurnaceModel model = new FurnaceModel(null);
+        model.loaded(10_000);
+        assertEquals(10_000 + 3 * TickClock.TICK_MS, model.readyAt());
+    }
+
+    @Test
+    public void readyAtIsP95NotTheSlowestLoad() {
+        FurnaceModel model = new FurnaceModel(null);
+        LatencyHistogram latency = model.latency();
+        for (int i = 0; i < 100; i++) {
+            latency.record(i < 96 ? 1200 : 1800);
+        }
+        latency.record(9000);
+        model.loaded(0);
+        long ready = model.readyAt();
+        assertTrue("got " + ready, ready >= 1200 && ready < 1300);
+    }
+}
@@ -0,0 +1,73 @@
+package org.dreambot.blastfurnace;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * RunEnergyModelTest.java
+ *
+ * Dose decisions and forecasts from laps that each cost 10 energy and dip 15 below the
+ * start, ten seconds long.
+ */
+public class RunEnergyModelTest {
+    private static final long LAP_MS = 10_000;
+
+    private final RunEnergyModel model = new RunEnergyModel();
+    private long now;
+
+    private void lap(int start, long staminaMs) {
+        model.startLap(now, start, staminaMs);
+        model.observe(start - 15);
+        now += LAP_MS;
+        model.endLap(now, start - 10);
+    }
+
+    @Test
+    public void fixedThresholdUntilTrained() {
+        lap(100, 0);
+        lap(90, 0);
+        assertFalse(model.isTrained());
+        assertTrue(model.doseDue(RunEnergyModel.FALLBACK_THRESHOLD, 0));
+        assertFalse(model.doseDue(RunEnergyModel.FALLBACK_THRESHOLD + 1, 0));
+    }
+
+    @Test
+    public void doseIsDueWhenTheNextLapWouldDipTooLow() {
+        lap(100, 0);
+        lap(90, 0);
+        lap(80, 0);
+        assertTrue(model.isTrained());
+        assertFalse(model.doseDue(20, 0));
+        assertTrue(model.doseDue(19, 0));
+    }
+
+    @Test
+    public void forecastRunsLapsForward() {
+        lap(100, 0);
+        lap(90, 0);
+        lap(80, 0);
+        assertEquals(70, model.forecast(100, 0, 3));
+        assertEquals(9, model.lapsUntilDose(100, 0, 20));
+        assertEquals(5, model.lapsUntilDose(100, 0, 5));
+    }
+
+    @Test
+    public void staminaCutsTheDrainBeforeStaminaLapsAreSeen() {
+        lap(100, 0);
+        lap(90, 0);
+        lap(80, 0);
+        // Two laps under the effect at 0.3 of the plain -10
+        assertEquals(44, model.forecast(50, 2 * LAP_MS, 2));
+    }
+
+    @Test
+    public void lapTheEffectRunsOutInTeachesNeitherRate() {
+        for (int i = 0; i < 3; i++) {
+            lap(100, LAP_MS / 2);
+        }
+        assertFalse(model.isTrained());
+    }
+}
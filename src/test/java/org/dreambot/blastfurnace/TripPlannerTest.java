@@ -0,0 +1,109 @@
+package org.dreambot.blastfurnace;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * TripPlannerTest.java
+ *
+ * Trips planned for each recipe with a normal coal bag, followed over many laps with the
+ * planner's own pot tracking.
+ */
+public class TripPlannerTest {
+    private static final int SLOTS = 27;
+
+    @Test
+    public void ironNeedsNoCoal() {
+        TripPlanner.Trip trip = new TripPlanner(BarRecipe.IRON).next(28, 0, 0);
+        assertEquals(28, trip.ore);
+        assertEquals(0, trip.coal);
+        assertFalse(trip.fillBag);
+    }
+
+    @Test
+    public void steelBuildsThePotThenCarriesOreAndTheBag() {
+        TripPlanner planner = new TripPlanner(BarRecipe.STEEL);
+        TripPlanner.Trip first = planner.next(SLOTS, TripPlanner.BAG_CAPACITY, 0);
+        assertEquals(0, first.ore);
+        assertEquals(SLOTS, first.coal);
+        assertTrue(first.fillBag);
+        planner.carried(first.ore, first.coal + TripPlanner.BAG_CAPACITY);
+
+        for (int lap = 0; lap < 10; lap++) {
+            TripPlanner.Trip trip = planner.next(SLOTS, TripPlanner.BAG_CAPACITY, 0);
+            assertEquals(SLOTS, trip.ore);
+            assertEquals(0, trip.coal);
+            assertTrue(trip.fillBag);
+            planner.carried(trip.ore, TripPlanner.BAG_CAPACITY);
+            assertEquals(54, planner.expectedPotCoal());
+        }
+    }
+
+    @Test
+    public void oreNeverOutrunsThePotAndCoalNeverOverfillsIt() {
+        for (BarRecipe recipe : BarRecipe.values()) {
+            TripPlanner planner = new TripPlanner(recipe);
+            int bag = recipe.usesCoal() ? TripPlanner.BAG_CAPACITY : 0;
+            int ore = 0;
+            for (int lap = 0; lap < 200; lap++) {
+                int pot = planner.expectedPotCoal();
+                TripPlanner.Trip trip = planner.next(SLOTS, bag, 0);
+                int coal = trip.coal + (trip.fillBag ? bag : 0);
+                assertTrue(recipe + " lap " + lap, recipe.coalPerBar() * trip.ore <= pot);
+                assertTrue(recipe + " lap " + lap,
+                    pot + coal - recipe.coalPerBar() * trip.ore <= TripPlanner.POT_COAL_CAPACITY);
+                planner.carried(trip.ore, coal);
+                ore += trip.ore;
+            }
+            assertTrue(recipe.toString(), ore > 200 * SLOTS / (recipe.coalPerBar() + 2));
+        }
+    }
+
+    @Test
+    public void nonzeroVarbitOverridesTheTrackedPot() {
+        TripPlanner planner = new TripPlanner(BarRecipe.MITHRIL);
+        planner.next(SLOTS, TripPlanner.BAG_CAPACITY, 100);
+        assertEquals(100, planner.expectedPotCoal());
+        planner.next(SLOTS, TripPlanner.BAG_CAPACITY, 0);
+        assertEquals(100, planner.expectedPotCoal());
+    }
+
+    @Test
+    public void carriedIsClampedToThePot() {
+        TripPlanner planner = new TripPlanner(BarRecipe.STEEL);
+        planner.carried(0, 1000);
+        assertEquals(TripPlanner.POT_COAL_CAPACITY, planner.expectedPotCoal());
+        planner.carried(1000, 0);
+        assertEquals(0, planner.expectedPotCoal());
+    }
+
+    @Test
+    public void capeBagIsOnlyCountedInFullWhereItPays() {
+        // Iron takes no coal, so emptying a bigger bag twice never pays
+        assertEquals(SLOTS, new TripPlanner(BarRecipe.IRON).usableBag(SLOTS, TripPlanner.CAPE_BAG_CAPACITY));
+        for (BarRecipe recipe : BarRecipe.values()) {
+            TripPlanner planner = new TripPlanner(recipe);
+            int usable = planner.usableBag(SLOTS, TripPlanner.CAPE_BAG_CAPACITY);
+            int other = usable == SLOTS ? TripPlanner.CAPE_BAG_CAPACITY : SLOTS;
+            assertTrue(recipe.toString(), best(planner, usable) >= best(planner, other));
+        }
+    }
+
+    private static double best(TripPlanner planner, int bag) {
+        return planner.barsPerHour(planner.mode(SLOTS, bag), SLOTS, bag);
+    }
+
+    @Test
+    public void modeWithMoreBarsPerHourIsChosen() {
+        for (BarRecipe recipe : BarRecipe.values()) {
+            TripPlanner planner = new TripPlanner(recipe);
+            TripPlanner.Mode mode = planner.mode(SLOTS, TripPlanner.BAG_CAPACITY);
+            TripPlanner.Mode other = mode == TripPlanner.Mode.SPLIT ? TripPlanner.Mode.ORE_OR_COAL : TripPlanner.Mode.SPLIT;
+            assertTrue(recipe.toString(), planner.barsPerHour(mode, SLOTS, TripPlanner.BAG_CAPACITY)
+                >= planner.barsPerHour(other, SLOTS, TripPlanner.BAG_CAPACITY));
+        }
+    }
+}
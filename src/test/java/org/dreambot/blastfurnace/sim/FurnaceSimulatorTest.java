@@ -0,0 +1,67 @@
+package org.dreambot.blastfurnace.sim;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * FurnaceSimulatorTest.java
+ *
+ * The whole furnace loop against the simulator: trips planned by TripPlanner, the bank
+ * visits BankPlanner turns them into, and the bars that come out the other end.
+ */
+public class FurnaceSimulatorTest {
+    private static final long HOUR = 3_600_000L;
+
+    private static FurnaceSimulator run(String recipe, SimSettings settings, long ms) {
+        FurnaceSimulator simulator = new FurnaceSimulator(recipe, settings);
+        simulator.run(ms);
+        return simulator;
+    }
+
+    @Test
+    public void steelKeepsItsRate() {
+        FurnaceSimulator simulator = run("steel", new SimSettings(), HOUR);
+        SimulatedBlastFurnace world = simulator.world();
+        assertFalse(simulator.logic().isStopped());
+        assertTrue(String.valueOf(world.barsBanked()), world.barsBanked() > 9_000);
+        assertMadeWhatWasBanked(simulator);
+        assertEquals(0, world.walkedTicks());
+    }
+
+    @Test
+    public void everyRecipeMakesBars() {
+        for (String recipe : new String[] {"iron", "gold", "mithril", "adamant", "rune"}) {
+            FurnaceSimulator simulator = run(recipe, new SimSettings(), HOUR / 4);
+            assertTrue(recipe, simulator.world().barsBanked() > 0);
+            assertMadeWhatWasBanked(simulator);
+        }
+    }
+
+    @Test
+    public void capeBagStillFillsFromTheBank() {
+        SimSettings settings = new SimSettings();
+        settings.smithingCape = true;
+        FurnaceSimulator simulator = run("mithril", settings, HOUR / 4);
+        assertTrue(simulator.world().barsBanked() > 0);
+    }
+
+    @Test
+    public void stopsOnceTheBankRunsOutOfCoal() {
+        SimSettings settings = new SimSettings();
+        settings.bankCoal = 500;
+        FurnaceSimulator simulator = run("steel", settings, HOUR);
+        assertTrue(simulator.logic().isStopped());
+        assertTrue(simulator.world().now() < HOUR);
+    }
+
+    /**
+     * The run can end with one load's bars collected but not yet banked
+     */
+    private static void assertMadeWhatWasBanked(FurnaceSimulator simulator) {
+        int unbanked = simulator.logic().barsMade() - simulator.world().barsBanked();
+        assertTrue(String.valueOf(unbanked), unbanked >= 0 && unbanked <= 28);
+    }
+}
@@ -0,0 +1,53 @@
+package org.dreambot.collector;
+
+import org.dreambot.core.game.GameApi;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.assertEquals;
+
+/*
+ * FairyRingTravelTest.java
+ *
+ * The code read back from the dial varbits, for every position of each dial.
+ */
+public class FairyRingTravelTest {
+    private final int[] dials = new int[3];
+
+    private final GameApi api = (GameApi) Proxy.newProxyInstance(GameApi.class.getClassLoader(),
+        new Class<?>[] {GameApi.class}, (proxy, method, args) -> {
+            if (!method.getName().equals("varbit")) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return dials[(Integer) args[0] - 3985];
+        });
+
+    private final FairyRingTravel rings = new FairyRingTravel(api, null, null);
+
+    private String dialed(int first, int second, int third) {
+        dials[0] = first;
+        dials[1] = second;
+        dials[2] = third;
+        return rings.dialed();
+    }
+
+    @Test
+    public void eachPositionOfEachDial() {
+        assertEquals("AIP", dialed(0, 0, 0));
+        assertEquals("DLS", dialed(1, 1, 1));
+        assertEquals("CKR", dialed(2, 2, 2));
+        assertEquals("BJQ", dialed(3, 3, 3));
+    }
+
+    @Test
+    public void codesTheScriptDials() {
+        assertEquals("CKR", dialed(2, 2, 2));
+        assertEquals("DKR", dialed(1, 2, 2));
+    }
+
+    @Test
+    public void bitsAboveThePositionAreIgnored() {
+        assertEquals("CKR", dialed(6, 6, 6));
+    }
+}
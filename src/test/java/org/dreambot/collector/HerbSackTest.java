@@ -0,0 +1,79 @@
+package org.dreambot.collector;
+
+import org.junit.Test;
+
+import static org.dreambot.core.Inventories.holding;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * HerbSackTest.java
+ *
+ * The sack's count from the herbs each Fill took out of the inventory.
+ */
+public class HerbSackTest {
+    private static final int SNAKEWEED = 1525;
+
+    private final HerbSack sack = new HerbSack();
+
+    @Test
+    public void closedOrOpenSackIsHeld() {
+        assertEquals(-1, sack.heldId(holding(SNAKEWEED, 3)));
+        assertEquals(HerbSack.HERB_SACK, sack.heldId(holding(HerbSack.HERB_SACK, 1)));
+        assertEquals(HerbSack.OPEN_HERB_SACK, sack.heldId(holding(HerbSack.OPEN_HERB_SACK, 1)));
+        assertFalse(sack.hasRoom(holding(SNAKEWEED, 3)));
+        assertTrue(sack.hasRoom(holding(HerbSack.HERB_SACK, 1)));
+    }
+
+    @Test
+    public void fillAddsWhatLeftTheInventory() {
+        sack.fillSent(20);
+        assertTrue(sack.isFilling());
+        sack.fillLanded(0);
+        assertFalse(sack.isFilling());
+        assertEquals(20, sack.stored());
+        sack.fillSent(20);
+        sack.fillLanded(0);
+        assertEquals(HerbSack.CAPACITY, sack.stored());
+        assertFalse(sack.hasRoom(holding(HerbSack.HERB_SACK, 1)));
+    }
+
+    @Test
+    public void fillThatMovesNothingMeansFull() {
+        sack.fillSent(20);
+        sack.fillLanded(20);
+        assertEquals(HerbSack.CAPACITY, sack.stored());
+    }
+
+    @Test
+    public void emptyCountsOnlyOnceTheHerbsShowUp() {
+        sack.fillSent(20);
+        sack.fillLanded(0);
+        sack.emptySent(100);
+        assertTrue(sack.isEmptying());
+        assertFalse(sack.emptyLanded(100));
+        assertFalse(sack.isEmptying());
+        assertEquals(20, sack.stored());
+        sack.emptySent(100);
+        assertTrue(sack.emptyLanded(120));
+        assertEquals(0, sack.stored());
+    }
+
+    @Test
+    public void secondEmptyShowingNothingMeansItWasEmpty() {
+        sack.fillSent(20);
+        sack.fillLanded(0);
+        sack.emptySent(100);
+        sack.emptyLanded(100);
+        sack.emptySent(100);
+        assertTrue(sack.emptyLanded(100));
+        assertEquals(0, sack.stored());
+    }
+
+    @Test
+    public void tripCarriesASackfulOnTop() {
+        assertEquals(20 + HerbSack.CAPACITY, sack.herbsPerTrip(holding(HerbSack.HERB_SACK, 1), 20));
+        assertEquals(20, sack.herbsPerTrip(holding(), 20));
+    }
+}
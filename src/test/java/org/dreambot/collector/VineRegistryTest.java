@@ -0,0 +1,96 @@
+package org.dreambot.collector;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * VineRegistryTest.java
+ *
+ * Vine choice and the learned respawn, with vines added by tile rather than from a scan.
+ */
+public class VineRegistryTest {
+    private static final int X = VineFilter.MIN_X + 5;
+    private static final int Y = VineFilter.MIN_Y + 5;
+
+    private final VineRegistry vines = new VineRegistry();
+
+    @Test
+    public void onlyOneVinePerTileInsideTheArea() {
+        vines.index(null);
+        assertTrue(vines.add(X, Y, null));
+        assertFalse(vines.add(X, Y, null));
+        assertFalse(vines.add(VineFilter.MIN_X - 1, Y, null));
+        assertTrue(vines.isIndexed());
+        vines.invalidate();
+        assertFalse(vines.isIndexed());
+    }
+
+    @Test
+    public void nearerOfTwoReadyVinesFirst() {
+        vines.index(null);
+        vines.add(X + 8, Y, null);
+        vines.add(X + 2, Y, null);
+        assertEquals(1, vines.next(X, Y, 0));
+    }
+
+    @Test
+    public void emptyVineIsPutOffForItsRespawn() {
+        vines.index(null);
+        vines.add(X + 1, Y, null);
+        vines.add(X + 8, Y, null);
+        vines.searched(0, false, 0);
+        assertTrue(vines.availableIn(0, 0) > 0);
+        assertEquals(1, vines.next(X, Y, 0));
+    }
+
+    @Test
+    public void herbMakesTheVineReadyAgain() {
+        vines.index(null);
+        vines.add(X + 1, Y, null);
+        vines.searched(0, false, 0);
+        vines.searched(0, true, 5_000);
+        assertEquals(0, vines.availableIn(0, 5_000));
+    }
+
+    @Test
+    public void respawnIsLearnedFromTheGapToAHerb() {
+        vines.index(null);
+        vines.add(X + 1, Y, null);
+        vines.searched(0, false, 0);
+        vines.searched(0, true, 10_000);
+        vines.searched(0, false, 20_000);
+
+        // Retried at 0.8 of the 10 s learned
+        assertEquals(8_000, vines.availableIn(0, 20_000));
+        assertTrue(vines.summary(), vines.summary().endsWith("respawn 10.0s"));
+    }
+
+    @Test
+    public void emptyRetryPushesTheRespawnBack() {
+        vines.index(null);
+        vines.add(X + 1, Y, null);
+        vines.searched(0, false, 0);
+        vines.searched(0, true, 10_000);
+        vines.searched(0, false, 20_000);
+        vines.searched(0, false, 28_000);
+
+        // Empty again 8 s after the first empty search: 1.5 x 8 s, retried at 0.8 of that
+        assertEquals(20_000 + 9_600 - 28_000, vines.availableIn(0, 28_000));
+    }
+
+    @Test
+    public void outcomesSurviveARescanButNotForget() {
+        vines.index(null);
+        vines.add(X + 1, Y, null);
+        vines.searched(0, false, 0);
+        vines.index(null);
+        vines.add(X + 1, Y, null);
+        assertTrue(vines.availableIn(0, 0) > 0);
+        vines.forget();
+        vines.add(X + 1, Y, null);
+        assertEquals(0, vines.availableIn(0, 0));
+    }
+}
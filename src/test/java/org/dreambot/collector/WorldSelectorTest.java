@@ -0,0 +1,97 @@
+package org.dreambot.collector;
+
+import org.dreambot.core.log.LogLevel;
+import org.dreambot.core.log.ScriptLog;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * WorldSelectorTest.java
+ *
+ * Hop decisions after a good world and then a contested one, and the history kept
+ * between runs.
+ */
+public class WorldSelectorTest {
+    private static final long STEP = 1_000;
+    private static final long SEARCH_EVERY = 5_000;
+    private static final long SIX_MINUTES = 6 * 60_000L;
+
+    private final ScriptLog logger = new ScriptLog("WorldSelectorTest", LogLevel.WARN);
+    private File dir;
+    private WorldSelector worlds;
+    private long now;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("worlds").toFile();
+        worlds = new WorldSelector(logger, dir);
+    }
+
+    /**
+     * Stands at the vines for the given time, searching every five seconds; one search
+     * in herbEvery gives a herb
+     */
+    private void work(long ms, int herbEvery) {
+        int search = 0;
+        for (long end = now + ms; now < end; now += STEP) {
+            worlds.observe(now, () -> 0);
+            if (now % SEARCH_EVERY == 0) {
+                worlds.searched(search++ % herbEvery == 0);
+            }
+        }
+    }
+
+    /**
+     * World 301 gives a herb every search, then world 302 one in four
+     */
+    private void goodThenContested() {
+        worlds.arrived(301);
+        work(SIX_MINUTES, 1);
+        assertFalse(worlds.shouldHop());
+        worlds.left(now);
+        worlds.arrived(302);
+        work(SIX_MINUTES, 4);
+    }
+
+    @Test
+    public void noHopBeforeAFullWindow() {
+        worlds.arrived(301);
+        work(60_000, 4);
+        assertFalse(worlds.shouldHop());
+    }
+
+    @Test
+    public void contestedSlowWorldIsLeft() {
+        goodThenContested();
+        assertTrue(worlds.shouldHop());
+        assertTrue(worlds.summary(), worlds.summary().startsWith("World 302: 3.0 herbs/min, 75% empty"));
+    }
+
+    @Test
+    public void unworkedWorldBeatsOneJustLeft() {
+        goodThenContested();
+        assertEquals(303, worlds.pick(new int[] {301, 302, 303}, 3, now));
+        assertEquals(-1, worlds.pick(new int[] {301, 302}, 2, now));
+        assertEquals(301, worlds.pick(new int[] {301, 302}, 2, now + 31 * 60_000L));
+    }
+
+    @Test
+    public void historyCarriesOverToTheNextRun() {
+        goodThenContested();
+        worlds.save();
+        assertTrue(new File(dir, "SnakeweedCollector-worlds.csv").isFile());
+
+        WorldSelector next = new WorldSelector(logger, dir);
+        next.load();
+        next.arrived(400);
+        assertEquals(301, next.pick(new int[] {302, 301}, 2, now));
+    }
+}
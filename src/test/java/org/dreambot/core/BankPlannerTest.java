@@ -0,0 +1,84 @@
+package org.dreambot.core;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.dreambot.core.Inventories.holding;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * BankPlannerTest.java
+ *
+ * plan() and satisfiedBy() for the furnace's loadout: coal bag, its fill, ore and coal.
+ */
+public class BankPlannerTest {
+    private static final int COAL_BAG = 12019;
+    private static final int ORE = 440;
+    private static final int COAL = 453;
+    private static final int BAR = 2353;
+    private static final int VIAL = 229;
+
+    private final BankPlanner planner = new BankPlanner();
+
+    private BankPlanner loadout(boolean fill) {
+        planner.clear().item(COAL_BAG, 1);
+        if (fill) {
+            planner.use(COAL_BAG, "Fill");
+        }
+        return planner.item(ORE, 13).item(COAL, 14);
+    }
+
+    @Test
+    public void fillWaitsForTheBagToBeHeld() {
+        List<BankPlanner.Action> actions = loadout(true).plan(holding());
+        assertEquals("[WITHDRAW 12019 x1, WITHDRAW 440 x13, WITHDRAW 453 x14]", actions.toString());
+    }
+
+    @Test
+    public void fillGoesOutOnceTheBagIsHeld() {
+        List<BankPlanner.Action> actions = loadout(true).plan(holding(COAL_BAG, 1));
+        assertEquals("[Fill 12019, WITHDRAW 440 x13, WITHDRAW 453 x14]", actions.toString());
+    }
+
+    @Test
+    public void oneExtraKindIsDepositedOnItsOwn() {
+        List<BankPlanner.Action> actions = loadout(false).plan(holding(COAL_BAG, 1, BAR, 27));
+        assertEquals("[DEPOSIT_ALL 2353, WITHDRAW 440 x13, WITHDRAW 453 x14]", actions.toString());
+        assertEquals(27, actions.get(0).amount);
+    }
+
+    @Test
+    public void severalExtraKindsGoInOneDepositAllExcept() {
+        List<BankPlanner.Action> actions = loadout(false).plan(holding(COAL_BAG, 1, BAR, 26, VIAL, 1));
+        assertEquals("[DEPOSIT_ALL_EXCEPT 12019, WITHDRAW 440 x13, WITHDRAW 453 x14]", actions.toString());
+    }
+
+    @Test
+    public void shortItemIsToppedUpAndOverItemRedone() {
+        List<BankPlanner.Action> actions = loadout(false).plan(holding(COAL_BAG, 1, ORE, 10, COAL, 15));
+        assertEquals("[DEPOSIT_ALL 453, WITHDRAW 440 x3, WITHDRAW 453 x14]", actions.toString());
+    }
+
+    @Test
+    public void matchingInventoryNeedsNothing() {
+        InventorySnapshot inventory = holding(COAL_BAG, 1, ORE, 13, COAL, 14);
+        assertTrue(loadout(false).plan(inventory).isEmpty());
+        assertTrue(planner.satisfiedBy(inventory));
+    }
+
+    @Test
+    public void pendingFillHoldsItemsButIsNotSatisfied() {
+        InventorySnapshot inventory = holding(COAL_BAG, 1, ORE, 13, COAL, 14);
+        loadout(true);
+        assertTrue(planner.holdsItems(inventory));
+        assertFalse(planner.satisfiedBy(inventory));
+    }
+
+    @Test
+    public void missingItemIsNotHeld() {
+        assertFalse(loadout(false).holdsItems(holding(COAL_BAG, 1, ORE, 13)));
+    }
+}
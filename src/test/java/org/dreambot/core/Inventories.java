@@ -0,0 +1,41 @@
+package org.dreambot.core;
+
+import org.dreambot.core.game.GameApi;
+
+import java.lang.reflect.Proxy;
+
+/*
+ * Inventories.java
+ *
+ * Fixed inventories for tests of code that reads an InventorySnapshot. Only
+ * readInventory() is answered; any other game call fails the test.
+ */
+public final class Inventories {
+    private Inventories() {
+    }
+
+    /**
+     * @param idsAndCounts Item ID then how many, for each kind held; one item per slot
+     * @return Snapshot holding exactly those items
+     */
+    public static InventorySnapshot holding(int... idsAndCounts) {
+        GameApi api = (GameApi) Proxy.newProxyInstance(GameApi.class.getClassLoader(), new Class<?>[] {GameApi.class},
+            (proxy, method, args) -> {
+                if (!method.getName().equals("readInventory")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                int[] ids = (int[]) args[0];
+                int[] amounts = (int[]) args[1];
+                int used = 0;
+                for (int i = 0; i + 1 < idsAndCounts.length; i += 2) {
+                    for (int n = 0; n < idsAndCounts[i + 1]; n++) {
+                        ids[used] = idsAndCounts[i];
+                        amounts[used] = 1;
+                        used++;
+                    }
+                }
+                return used;
+            });
+        return new InventorySnapshot(new TickClock(() -> 0), api);
+    }
+}
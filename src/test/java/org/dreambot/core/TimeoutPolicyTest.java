@@ -0,0 +1,75 @@
+package org.dreambot.core;
+
+import org.dreambot.core.metrics.LatencyHistogram;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * TimeoutPolicyTest.java
+ *
+ * Learned timeouts from known success durations: the default until enough samples, then
+ * the percentile plus margin, the floor, and the backoff after timeouts.
+ */
+public class TimeoutPolicyTest {
+    private static final long DEFAULT_MS = 5000;
+
+    @Test
+    public void defaultAppliesUntilEnoughSuccesses() {
+        Wait wait = new Wait("Test");
+        record(wait, 19, 600);
+        assertEquals(DEFAULT_MS, TimeoutPolicy.DEFAULT.timeoutFor(wait, DEFAULT_MS));
+    }
+
+    @Test
+    public void learnedTimeoutIsP99PlusATick() {
+        Wait wait = new Wait("Test");
+        record(wait, 200, 600);
+        long timeout = TimeoutPolicy.DEFAULT.timeoutFor(wait, DEFAULT_MS);
+        assertTrue("got " + timeout, timeout >= 600 + TickClock.TICK_MS && timeout < 700 + TickClock.TICK_MS);
+    }
+
+    @Test
+    public void oneSlowOutlierDoesNotSetTheTimeout() {
+        Wait wait = new Wait("Test");
+        record(wait, 200, 600);
+        record(wait, 1, 20_000);
+        long timeout = TimeoutPolicy.DEFAULT.timeoutFor(wait, DEFAULT_MS);
+        assertTrue("got " + timeout, timeout < 2000);
+    }
+
+    @Test
+    public void neverBelowTheFloor() {
+        Wait wait = new Wait("Test");
+        record(wait, 50, 0);
+        assertEquals(2 * TickClock.TICK_MS, TimeoutPolicy.DEFAULT.timeoutFor(wait, DEFAULT_MS));
+    }
+
+    @Test
+    public void consecutiveTimeoutsDoubleItUpToTheCap() {
+        long[] now = {0};
+        TickClock clock = new TickClock(() -> now[0]);
+        Wait wait = new Wait("Test").succeedWhen(() -> false);
+        assertEquals(DEFAULT_MS, TimeoutPolicy.DEFAULT.timeoutFor(wait, DEFAULT_MS));
+        for (int timeouts = 1; timeouts <= 5; timeouts++) {
+            wait.start(now[0], 0);
+            now[0] += 10;
+            assertEquals(Wait.Outcome.TIMED_OUT, wait.check(clock, null, now[0]));
+            long expected = DEFAULT_MS << Math.min(timeouts, 3);
+            assertEquals(expected, TimeoutPolicy.DEFAULT.timeoutFor(wait, DEFAULT_MS));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void percentileIsAFraction() {
+        new TimeoutPolicy(99, TickClock.TICK_MS, 20, 2 * TickClock.TICK_MS);
+    }
+
+    private static void record(Wait wait, int times, long durationMs) {
+        LatencyHistogram succeeded = wait.durations(Wait.Outcome.SUCCEEDED);
+        for (int i = 0; i < times; i++) {
+            succeeded.record(durationMs);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.dreambot.core;
+
+import org.dreambot.core.metrics.LatencyHistogram;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * WaitTest.java
+ *
+ * Outcomes of check() against a fixed clock, and the summary line built from them.
+ */
+public class WaitTest {
+    private final long[] now = {0};
+    private final TickClock clock = new TickClock(() -> now[0]);
+
+    @Test
+    public void successIsCheckedFirstAndTimed() {
+        boolean[] done = {false};
+        Wait wait = new Wait("Test").succeedWhen(() -> done[0]).stallWhen(() -> true, 1);
+        wait.start(now[0], 0);
+        now[0] = 300;
+        done[0] = true;
+        assertEquals(Wait.Outcome.SUCCEEDED, wait.check(clock, null, 5000));
+        assertEquals(300, wait.durations(Wait.Outcome.SUCCEEDED).max());
+    }
+
+    @Test
+    public void stallsAfterItsTicks() {
+        Wait wait = new Wait("Test").succeedWhen(() -> false).stallWhen(() -> true, 2);
+        wait.start(now[0], 0);
+        assertEquals(Wait.Outcome.PENDING, wait.check(clock, null, 5000));
+        now[0] += TickClock.TICK_MS;
+        assertEquals(Wait.Outcome.STALLED, wait.check(clock, null, 5000));
+    }
+
+    @Test
+    public void timesOutAtTheDeadline() {
+        Wait wait = new Wait("Test").succeedWhen(() -> false);
+        wait.start(now[0], 0);
+        now[0] = 999;
+        assertEquals(Wait.Outcome.PENDING, wait.check(clock, null, 1000));
+        now[0] = 1000;
+        assertEquals(Wait.Outcome.TIMED_OUT, wait.check(clock, null, 1000));
+        assertEquals(1, wait.consecutiveTimeouts());
+    }
+
+    @Test
+    public void summaryShowsTheMedianNotTheMaximum() {
+        Wait wait = new Wait("Take");
+        LatencyHistogram succeeded = wait.durations(Wait.Outcome.SUCCEEDED);
+        for (int value = 1; value <= 10; value++) {
+            succeeded.record(value);
+        }
+        String summary = wait.summary();
+        assertTrue(summary, summary.contains("succeeded 10 (p50 5ms)"));
+    }
+}
@@ -0,0 +1,74 @@
+package org.dreambot.core.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * LatencyHistogramTest.java
+ *
+ * Percentiles over known distributions. percentile() takes a fraction, so these also pin
+ * down the unit every caller has to use.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void emptyHistogramReadsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.5));
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.mean());
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+        assertEquals(5, histogram.percentile(0.50));
+        assertEquals(10, histogram.percentile(0.95));
+        assertEquals(1, histogram.percentile(0.01));
+    }
+
+    @Test
+    public void percentilesOfUniformDistributionStayWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        assertWithin(500, histogram.percentile(0.50));
+        assertWithin(950, histogram.percentile(0.95));
+        assertWithin(990, histogram.percentile(0.99));
+        assertEquals(1000, histogram.percentile(1.0));
+        assertEquals(500, histogram.mean());
+    }
+
+    @Test
+    public void oneOutlierDoesNotMoveTheMedianOrP99() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 200; i++) {
+            histogram.record(600);
+        }
+        histogram.record(30_000);
+        assertWithin(600, histogram.percentile(0.50));
+        assertWithin(600, histogram.percentile(0.99));
+        assertEquals(30_000, histogram.max());
+    }
+
+    @Test
+    public void valuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(LatencyHistogram.MAX_VALUE * 2);
+        assertEquals(0, histogram.percentile(0.5));
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.max());
+    }
+
+    // Buckets report their upper bound, at most about 6% above the value
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("expected about " + expected + ", got " + actual,
+            actual >= expected && actual <= expected + expected / 16 + 1);
+    }
+}
@@ -0,0 +1,73 @@
+package org.dreambot.core.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/*
+ * RateEstimatorTest.java
+ *
+ * Window and EWMA rates from a counter recorded every five seconds.
+ */
+public class RateEstimatorTest {
+    private static final long STEP = 5_000;
+
+    private final RateEstimator rate = new RateEstimator(RateEstimator.FIVE_MINUTES);
+    private long now;
+    private long total;
+
+    /**
+     * Records one sample per step for the given time, adding perStep each time
+     */
+    private void run(long ms, int perStep) {
+        for (long end = now + ms; now < end; ) {
+            now += STEP;
+            total += perStep;
+            rate.record(now, total);
+        }
+    }
+
+    @Test
+    public void zeroUntilThirtySecondsOfHistory() {
+        rate.record(now, total);
+        run(25_000, 1);
+        assertEquals(0, rate.perHour(now, RateEstimator.FIVE_MINUTES));
+        run(STEP, 1);
+        assertEquals(720, rate.perHour(now, RateEstimator.FIVE_MINUTES));
+    }
+
+    @Test
+    public void steadyCounterReadsTheSameEverywhere() {
+        rate.record(now, total);
+        run(RateEstimator.FIFTEEN_MINUTES, 1);
+        assertEquals(720, rate.perHour(now, RateEstimator.FIVE_MINUTES));
+        assertEquals(720, rate.perHour(now, RateEstimator.SIXTY_MINUTES));
+        assertEquals(720, rate.ewmaPerHour());
+    }
+
+    @Test
+    public void shortWindowSeesAStallFirst() {
+        rate.record(now, total);
+        run(10 * 60_000L, 1);
+        run(RateEstimator.FIVE_MINUTES, 0);
+        assertEquals(0, rate.perHour(now, RateEstimator.FIVE_MINUTES));
+        assertEquals(480, rate.perHour(now, RateEstimator.FIFTEEN_MINUTES));
+    }
+
+    @Test
+    public void samplesCloserThanTheIntervalAreIgnored() {
+        rate.record(0, 0);
+        rate.record(1_000, 100);
+        rate.record(40_000, 8);
+        assertEquals(720, rate.perHour(40_000, RateEstimator.FIVE_MINUTES));
+    }
+
+    @Test
+    public void resetForgetsEverything() {
+        rate.record(now, total);
+        run(RateEstimator.FIVE_MINUTES, 1);
+        rate.reset();
+        assertEquals(0, rate.perHour(now, RateEstimator.FIVE_MINUTES));
+        assertEquals(0, rate.ewmaPerHour());
+    }
+}